@@ -26,7 +26,9 @@ import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.FormattedNamedFunction;
 import io.github.ericmedvet.jnb.datastructure.NamedFunction;
+import io.github.ericmedvet.jsdynsym.control.Bound;
 import io.github.ericmedvet.jsdynsym.control.HomogeneousBiSimulation;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
 import io.github.ericmedvet.jsdynsym.control.Simulation;
 import io.github.ericmedvet.jsdynsym.control.Simulation.Outcome;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
@@ -51,6 +53,59 @@ public class Functions {
   private Functions() {
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X> FormattedNamedFunction<X, Boolean> aborted(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, Simulation.BoundedOutcome<?>> beforeF,
+      @Param(value = "format", dS = "%5s") String format
+  ) {
+    Function<Simulation.BoundedOutcome<?>, Boolean> f = Simulation.BoundedOutcome::aborted;
+    return FormattedNamedFunction.from(f, format, "aborted").compose(beforeF);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X, S, B extends Simulation.Outcome<SS>, SS> NamedFunction<X, Simulation.BoundedOutcome<SS>> boundedOpponentBiSimulator(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, S> beforeF,
+      @Param("simulation") HomogeneousBiSimulation<S, SS, B> biSimulation,
+      @Param("opponent") S opponent,
+      @Param(value = "home", dB = true) boolean home,
+      @Param("bound") Bound<? super SS> bound,
+      @Param("threshold") double threshold,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "format", dS = "%s") String format
+  ) {
+    Function<S, Simulation.BoundedOutcome<SS>> f = s -> home ? biSimulation.simulate(
+        s,
+        opponent,
+        dT,
+        tRange,
+        bound,
+        threshold
+    ) : biSimulation.simulate(opponent, s, dT, tRange, bound, threshold);
+    return NamedFunction.from(f, "opponent.sim[%s]".formatted(bound)).compose(beforeF);
+  }
+
+  /**
+   * Simulates until the end of the time range or until the bound on the fitness becomes worse than the threshold: in
+   * the latter case, the partial outcome is returned and marked as aborted.
+   */
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X, SS, O extends Simulation.Outcome<SS>, S extends Simulation<T, SS, O>, T> FormattedNamedFunction<X, Simulation.BoundedOutcome<SS>> boundedSimulate(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, T> beforeF,
+      @Param("simulation") S simulation,
+      @Param("bound") Bound<? super SS> bound,
+      @Param("threshold") double threshold,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "format", dS = "%s") String format
+  ) {
+    Function<T, Simulation.BoundedOutcome<SS>> f = t -> simulation.simulate(t, dT, tRange, bound, threshold);
+    return FormattedNamedFunction.from(f, format, "sim[%s;%s]".formatted(simulation, bound)).compose(beforeF);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <X> FormattedNamedFunction<X, Double> cumulatedReward(
@@ -109,6 +164,59 @@ public class Functions {
     return NamedFunction.from(f, "opponent.sim").compose(beforeF);
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X, S, B extends Simulation.Outcome<SS>, SS, R> FormattedNamedFunction<X, R> reducedOpponentBiSimulator(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, S> beforeF,
+      @Param("simulation") HomogeneousBiSimulation<S, SS, B> biSimulation,
+      @Param("opponent") S opponent,
+      @Param(value = "home", dB = true) boolean home,
+      @Param("reducer") Reducer<? super SS, R> reducer,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "format", dS = "%s") String format
+  ) {
+    Function<S, R> f = s -> home ? biSimulation.simulate(s, opponent, dT, tRange, reducer) : biSimulation.simulate(
+        opponent,
+        s,
+        dT,
+        tRange,
+        reducer
+    );
+    return FormattedNamedFunction.from(f, format, "opponent.sim[%s]".formatted(reducer)).compose(beforeF);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X, S, B extends Simulation.Outcome<SS>, SS, R> FormattedNamedFunction<X, R> reducedSelfBiSimulator(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, S> beforeF,
+      @Param("simulation") HomogeneousBiSimulation<S, SS, B> biSimulation,
+      @Param("reducer") Reducer<? super SS, R> reducer,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "format", dS = "%s") String format
+  ) {
+    Function<S, R> f = s -> biSimulation.simulate(s, s, dT, tRange, reducer);
+    return FormattedNamedFunction.from(f, format, "self.sim[%s]".formatted(reducer)).compose(beforeF);
+  }
+
+  /**
+   * Simulates and reduces the outcome while simulating, without retaining the snapshots.
+   */
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X, SS, O extends Simulation.Outcome<SS>, S extends Simulation<T, SS, O>, T, R> FormattedNamedFunction<X, R> reducedSimulate(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, T> beforeF,
+      @Param("simulation") S simulation,
+      @Param("reducer") Reducer<? super SS, R> reducer,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "format", dS = "%s") String format
+  ) {
+    Function<T, R> f = t -> simulation.simulate(t, dT, tRange, reducer);
+    return FormattedNamedFunction.from(f, format, "sim[%s;%s]".formatted(simulation, reducer)).compose(beforeF);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <X, S, B extends Simulation.Outcome<SS>, SS> NamedFunction<X, Simulation.Outcome<SS>> selfBiSimulator(
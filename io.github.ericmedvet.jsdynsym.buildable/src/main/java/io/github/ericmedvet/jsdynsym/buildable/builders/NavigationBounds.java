@@ -0,0 +1,123 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Bound;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.navigation.State;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.navigation|nav|n.bound|b")
+public class NavigationBounds {
+
+  private NavigationBounds() {
+  }
+
+  private abstract static class DistanceAccumulator implements Reducer.Accumulator<SingleAgentTask.Step<double[], double[], State>, Double> {
+    private final double dT;
+    private final int nOfSteps;
+    protected int count;
+    protected double d;
+    protected double maxStepD;
+
+    private DistanceAccumulator(double dT, DoubleRange tRange) {
+      this.dT = dT;
+      nOfSteps = Bound.nOfSteps(dT, tRange);
+    }
+
+    @Override
+    public void add(double t, SingleAgentTask.Step<double[], double[], State> snapshot) {
+      d = snapshot.state().robotPosition().distance(snapshot.state().targetPosition());
+      // the robot moves by at most robotMaxV along each axis, possibly scaled by dT if the speed is relative
+      maxStepD = Math.sqrt(2d) * snapshot.state().configuration().robotMaxV() * Math.max(1d, dT);
+      count = count + 1;
+    }
+
+    protected int remainingSteps() {
+      return Math.max(0, nOfSteps - count);
+    }
+
+    // lowest distance reachable in the remaining steps
+    protected double lowestD() {
+      return Math.max(0d, d - maxStepD * remainingSteps());
+    }
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<SingleAgentTask.Step<double[], double[], State>> avgD() {
+    return Bound.lower("avg.dist", (dT, tRange) -> new DistanceAccumulator(dT, tRange) {
+      private double sum;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> snapshot) {
+        super.add(t, snapshot);
+        sum = sum + d;
+      }
+
+      @Override
+      public Double get() {
+        if (count == 0) {
+          return 0d;
+        }
+        // the k-th next distance is at least d-k*maxStepD: the average is minimized either by stopping now or by
+        // approaching the target at full speed until the end
+        int remainingSteps = remainingSteps();
+        int nOfPositiveSteps = maxStepD > 0 ? (int) Math.min(remainingSteps, Math.floor(d / maxStepD)) : remainingSteps;
+        double remainingSum = nOfPositiveSteps * d - maxStepD * nOfPositiveSteps * (nOfPositiveSteps + 1d) / 2d;
+        return Math.min(sum / count, (sum + remainingSum) / (count + remainingSteps));
+      }
+    });
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<SingleAgentTask.Step<double[], double[], State>> finalD() {
+    return Bound.lower("final.dist", (dT, tRange) -> new DistanceAccumulator(dT, tRange) {
+      @Override
+      public Double get() {
+        return count == 0 ? 0d : lowestD();
+      }
+    });
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<SingleAgentTask.Step<double[], double[], State>> minD() {
+    return Bound.lower("min.dist", (dT, tRange) -> new DistanceAccumulator(dT, tRange) {
+      private double minD = Double.POSITIVE_INFINITY;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> snapshot) {
+        super.add(t, snapshot);
+        minD = Math.min(minD, d);
+      }
+
+      @Override
+      public Double get() {
+        return count == 0 ? 0d : Math.min(minD, lowestD());
+      }
+    });
+  }
+}
@@ -0,0 +1,132 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.core.Param;
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.geometry.Point;
+import io.github.ericmedvet.jsdynsym.control.navigation.Arena;
+import io.github.ericmedvet.jsdynsym.control.navigation.State;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.navigation|nav|n.reducer|r")
+public class NavigationReducers {
+
+  private NavigationReducers() {
+  }
+
+  private static double distance(SingleAgentTask.Step<double[], double[], State> step) {
+    return step.state().robotPosition().distance(step.state().targetPosition());
+  }
+
+  private static Point position(State state, boolean normalized) {
+    Point p = state.robotPosition();
+    if (normalized) {
+      Arena arena = state.configuration().arena();
+      return new Point(
+          new DoubleRange(0, arena.xExtent()).normalize(p.x()),
+          new DoubleRange(0, arena.yExtent()).normalize(p.y())
+      );
+    }
+    return p;
+  }
+
+  private static int quantize(double v, int n) {
+    return Math.max(0, Math.min((int) Math.round(v * (double) n), n - 1));
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> arenaCoverage(
+      @Param(value = "xBins", dI = 10) int xBins,
+      @Param(value = "yBins", dI = 10) int yBins
+  ) {
+    return Reducer.<SingleAgentTask.Step<double[], double[], State>>distinctCells(
+        s -> {
+          Arena arena = s.state().configuration().arena();
+          return quantize(s.state().robotPosition().x() / arena.xExtent(), xBins) * yBins + quantize(
+              s.state().robotPosition().y() / arena.yExtent(),
+              yBins
+          );
+        },
+        xBins * yBins
+    ).andThen(n -> (double) n / (double) (xBins * yBins)).named("arena.coverage[%dx%d]".formatted(xBins, yBins));
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> avgD() {
+    return Reducer.average(NavigationReducers::distance).named("avg.dist");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Point> closestRobotP(
+      @Param(value = "normalized", dB = true) boolean normalized
+  ) {
+    return Reducer.<SingleAgentTask.Step<double[], double[], State>, Point>argMin(
+        NavigationReducers::distance,
+        s -> position(s.state(), normalized)
+    ).named("closest.pos");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> finalD() {
+    return Reducer.last(NavigationReducers::distance).named("final.dist");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Point> finalRobotP(
+      @Param(value = "normalized", dB = true) boolean normalized
+  ) {
+    return Reducer.<SingleAgentTask.Step<double[], double[], State>, Point>last(
+        s -> position(s.state(), normalized)
+    ).named("final.pos");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> finalTime() {
+    return Reducer.<SingleAgentTask.Step<double[], double[], State>>lastTime().named("final.time");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> finalTimePlusD(
+      @Param(value = "epsilon", dD = .01) double epsilon
+  ) {
+    return Reducer.<SingleAgentTask.Step<double[], double[], State>, Double>lastWithTime((t, s) -> {
+      double lastDistance = distance(s);
+      return t + (lastDistance < epsilon ? 0d : lastDistance);
+    }).named("final.td");
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<SingleAgentTask.Step<double[], double[], State>, Double> minD() {
+    return Reducer.min(NavigationReducers::distance).named("min.dist");
+  }
+}
@@ -25,11 +25,11 @@ import io.github.ericmedvet.jnb.core.Discoverable;
 import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.core.StatelessSystem;
-import io.github.ericmedvet.jsdynsym.core.composed.InStepped;
-import io.github.ericmedvet.jsdynsym.core.composed.OutStepped;
 import io.github.ericmedvet.jsdynsym.core.composed.Stepped;
 import io.github.ericmedvet.jsdynsym.core.numerical.*;
 import io.github.ericmedvet.jsdynsym.core.numerical.ann.DelayedRecurrentNetwork;
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.FloatHebbianMultilayerPerceptron;
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.FloatMultiLayerPerceptron;
 import io.github.ericmedvet.jsdynsym.core.numerical.ann.HebbianMultilayerPerceptron;
 import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
 import java.util.List;
@@ -42,6 +42,31 @@ public class NumericalDynamicalSystems {
   private NumericalDynamicalSystems() {
   }
 
+  private static int[] innerNeurons(
+      int nOfInputs,
+      int nOfOutputs,
+      double innerLayerRatio,
+      int nOfInnerLayers,
+      List<Integer> innerLayers
+  ) {
+    if (!innerLayers.isEmpty()) {
+      return innerLayers.stream().mapToInt(i -> i).toArray();
+    }
+    int[] innerNeurons = new int[nOfInnerLayers];
+    int centerSize = (int) Math.max(2, Math.round(nOfInputs * innerLayerRatio));
+    if (nOfInnerLayers > 1) {
+      for (int i = 0; i < nOfInnerLayers / 2; i++) {
+        innerNeurons[i] = nOfInputs + (centerSize - nOfInputs) / (nOfInnerLayers / 2 + 1) * (i + 1);
+      }
+      for (int i = nOfInnerLayers / 2; i < nOfInnerLayers; i++) {
+        innerNeurons[i] = centerSize + (nOfOutputs - centerSize) / (nOfInnerLayers / 2 + 1) * (i - nOfInnerLayers / 2);
+      }
+    } else if (nOfInnerLayers > 0) {
+      innerNeurons[0] = centerSize;
+    }
+    return innerNeurons;
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static Builder<DelayedRecurrentNetwork, DelayedRecurrentNetwork.State> drn(
@@ -50,7 +75,9 @@ public class NumericalDynamicalSystems {
       @Param(value = "innerNeurons", dD = 0) int innerNeurons,
       @Param(value = "activationFunction", dS = "tanh") MultiLayerPerceptron.ActivationFunction activationFunction,
       @Param(value = "threshold", dD = 0.1d) double threshold,
-      @Param(value = "timeResolution", dD = 0.16666d) double timeResolution
+      @Param(value = "timeResolution", dD = 0.16666d) double timeResolution,
+      @Param(value = "sparse") boolean sparse,
+      @Param(value = "expiringPulses") boolean expiringPulses
   ) {
     return (xVarNames, yVarNames) -> new DelayedRecurrentNetwork(
         activationFunction,
@@ -59,7 +86,9 @@ public class NumericalDynamicalSystems {
         innerNeurons > 0 ? innerNeurons : ((int) Math.round(innerNeuronsRatio * (xVarNames.size() + yVarNames.size()))),
         timeRange,
         threshold,
-        timeResolution
+        timeResolution,
+        sparse,
+        expiringPulses
     );
   }
 
@@ -90,17 +119,55 @@ public class NumericalDynamicalSystems {
 
   @SuppressWarnings("unused")
   @Cacheable
-  public static <S> Builder<NumericalDynamicalSystem<Stepped.State<S>>, Stepped.State<S>> inStepped(
-      @Param(value = "stepT", dD = 1) double interval,
-      @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner
+  public static Builder<FloatHebbianMultilayerPerceptron, HebbianMultilayerPerceptron.State> floatHebbianMlp(
+      @Param(value = "innerLayerRatio", dD = 0.65) double innerLayerRatio,
+      @Param(value = "nOfInnerLayers", dI = 1) int nOfInnerLayers,
+      @Param("innerLayers") List<Integer> innerLayers,
+      @Param(value = "learningRate", dD = 0.01) double learningRate,
+      @Param(value = "activationFunction", dS = "tanh") MultiLayerPerceptron.ActivationFunction activationFunction,
+      @Param(value = "initialWeightRange", dNPM = "m.range(min=-0.1;max=0.1)") DoubleRange initialWeightRange,
+      @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator,
+      @Param(value = "parametrizationType", dS = "synapse") HebbianMultilayerPerceptron.ParametrizationType parametrizationType,
+      @Param(value = "weightInitializationType", dS = "params") HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType
   ) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new InStepped<>(inner.apply(xVarNames, yVarNames), interval),
+    return (xVarNames, yVarNames) -> new FloatHebbianMultilayerPerceptron(
+        activationFunction,
         xVarNames.size(),
+        innerNeurons(xVarNames.size(), yVarNames.size(), innerLayerRatio, nOfInnerLayers, innerLayers),
+        yVarNames.size(),
+        learningRate,
+        initialWeightRange,
+        randomGenerator,
+        parametrizationType,
+        weightInitializationType
+    );
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Builder<FloatMultiLayerPerceptron, StatelessSystem.State> floatMlp(
+      @Param(value = "innerLayerRatio", dD = 0.65) double innerLayerRatio,
+      @Param(value = "nOfInnerLayers", dI = 1) int nOfInnerLayers,
+      @Param("innerLayers") List<Integer> innerLayers,
+      @Param(value = "activationFunction", dS = "tanh") MultiLayerPerceptron.ActivationFunction activationFunction
+  ) {
+    return (xVarNames, yVarNames) -> new FloatMultiLayerPerceptron(
+        activationFunction,
+        xVarNames.size(),
+        innerNeurons(xVarNames.size(), yVarNames.size(), innerLayerRatio, nOfInnerLayers, innerLayers),
         yVarNames.size()
     );
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <S> Builder<NumericalDynamicalSystem<Stepped.State<S>>, Stepped.State<S>> inStepped(
+      @Param(value = "stepT", dD = 1) double interval,
+      @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner
+  ) {
+    return (xVarNames, yVarNames) -> new NumericalInStepped<>(inner.apply(xVarNames, yVarNames), interval);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static Builder<LinearCombination, StatelessSystem.State> linear(
@@ -117,36 +184,12 @@ public class NumericalDynamicalSystems {
       @Param("innerLayers") List<Integer> innerLayers,
       @Param(value = "activationFunction", dS = "tanh") MultiLayerPerceptron.ActivationFunction activationFunction
   ) {
-    return (xVarNames, yVarNames) -> {
-      if (innerLayers.isEmpty()) {
-        int[] innerNeurons = new int[nOfInnerLayers];
-        int centerSize = (int) Math.max(2, Math.round(xVarNames.size() * innerLayerRatio));
-        if (nOfInnerLayers > 1) {
-          for (int i = 0; i < nOfInnerLayers / 2; i++) {
-            innerNeurons[i] = xVarNames.size() + (centerSize - xVarNames.size()) / (nOfInnerLayers / 2 + 1) * (i + 1);
-          }
-          for (int i = nOfInnerLayers / 2; i < nOfInnerLayers; i++) {
-            innerNeurons[i] = centerSize + (yVarNames
-                .size() - centerSize) / (nOfInnerLayers / 2 + 1) * (i - nOfInnerLayers / 2);
-          }
-        } else if (nOfInnerLayers > 0) {
-          innerNeurons[0] = centerSize;
-        }
-        return new MultiLayerPerceptron(
-            activationFunction,
-            xVarNames.size(),
-            innerNeurons,
-            yVarNames.size()
-        );
-      } else {
-        return new MultiLayerPerceptron(
-            activationFunction,
-            xVarNames.size(),
-            innerLayers.stream().mapToInt(i -> i).toArray(),
-            yVarNames.size()
-        );
-      }
-    };
+    return (xVarNames, yVarNames) -> new MultiLayerPerceptron(
+        activationFunction,
+        xVarNames.size(),
+        innerNeurons(xVarNames.size(), yVarNames.size(), innerLayerRatio, nOfInnerLayers, innerLayers),
+        yVarNames.size()
+    );
   }
 
   @SuppressWarnings("unused")
@@ -162,46 +205,17 @@ public class NumericalDynamicalSystems {
       @Param(value = "parametrizationType", dS = "synapse") HebbianMultilayerPerceptron.ParametrizationType parametrizationType,
       @Param(value = "weightInitializationType", dS = "params") HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType
   ) {
-    return (xVarNames, yVarNames) -> {
-      if (innerLayers.isEmpty()) {
-        int[] innerNeurons = new int[nOfInnerLayers];
-        int centerSize = (int) Math.max(2, Math.round(xVarNames.size() * innerLayerRatio));
-        if (nOfInnerLayers > 1) {
-          for (int i = 0; i < nOfInnerLayers / 2; i++) {
-            innerNeurons[i] = xVarNames.size() + (centerSize - xVarNames.size()) / (nOfInnerLayers / 2 + 1) * (i + 1);
-          }
-          for (int i = nOfInnerLayers / 2; i < nOfInnerLayers; i++) {
-            innerNeurons[i] = centerSize + (yVarNames
-                .size() - centerSize) / (nOfInnerLayers / 2 + 1) * (i - nOfInnerLayers / 2);
-          }
-        } else if (nOfInnerLayers > 0) {
-          innerNeurons[0] = centerSize;
-        }
-        return new HebbianMultilayerPerceptron(
-            activationFunction,
-            xVarNames.size(),
-            innerNeurons,
-            yVarNames.size(),
-            learningRate,
-            initialWeightRange,
-            randomGenerator,
-            parametrizationType,
-            weightInitializationType
-        );
-      } else {
-        return new HebbianMultilayerPerceptron(
-            activationFunction,
-            xVarNames.size(),
-            innerLayers.stream().mapToInt(i -> i).toArray(),
-            yVarNames.size(),
-            learningRate,
-            initialWeightRange,
-            randomGenerator,
-            parametrizationType,
-            weightInitializationType
-        );
-      }
-    };
+    return (xVarNames, yVarNames) -> new HebbianMultilayerPerceptron(
+        activationFunction,
+        xVarNames.size(),
+        innerNeurons(xVarNames.size(), yVarNames.size(), innerLayerRatio, nOfInnerLayers, innerLayers),
+        yVarNames.size(),
+        learningRate,
+        initialWeightRange,
+        randomGenerator,
+        parametrizationType,
+        weightInitializationType
+    );
   }
 
   @SuppressWarnings("unused")
@@ -226,11 +240,7 @@ public class NumericalDynamicalSystems {
       @Param(value = "stepT", dD = 1) double interval,
       @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner
   ) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new OutStepped<>(inner.apply(xVarNames, yVarNames), interval),
-        xVarNames.size(),
-        yVarNames.size()
-    );
+    return (xVarNames, yVarNames) -> new NumericalOutStepped<>(inner.apply(xVarNames, yVarNames), interval);
   }
 
   @SuppressWarnings("unused")
@@ -257,11 +267,7 @@ public class NumericalDynamicalSystems {
       @Param(value = "stepT", dD = 0.1) double interval,
       @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner
   ) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new Stepped<>(inner.apply(xVarNames, yVarNames), interval),
-        xVarNames.size(),
-        yVarNames.size()
-    );
+    return (xVarNames, yVarNames) -> new NumericalStepped<>(inner.apply(xVarNames, yVarNames), interval);
   }
 
   public interface Builder<F extends NumericalDynamicalSystem<S>, S> extends BiFunction<List<String>, List<String>, F> {
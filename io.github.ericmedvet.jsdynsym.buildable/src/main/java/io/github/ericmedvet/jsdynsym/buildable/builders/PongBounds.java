@@ -0,0 +1,127 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Bound;
+import io.github.ericmedvet.jsdynsym.control.HomogeneousBiAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
+import io.github.ericmedvet.jsdynsym.control.pong.PongEnvironment;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.pong.bound|b")
+public class PongBounds {
+  private PongBounds() {
+  }
+
+  private interface ScoreFunction {
+    double apply(double ownScore, double otherScore);
+  }
+
+  // at most one point per step; the ball moves at most at the max velocity and restarts from the center after a point,
+  // hence it needs some time to reach a side
+  private static int maxRemainingPoints(PongEnvironment.State state, double t, DoubleRange tRange, int remainingSteps) {
+    PongEnvironment.Configuration configuration = state.configuration();
+    double maxV = Math.max(configuration.ballMaxVelocity(), configuration.ballInitialVelocity());
+    double ballX = new DoubleRange(0, configuration.arenaXLength()).clip(state.ballState().position().x());
+    double firstPointT = t + Math.min(ballX, configuration.arenaXLength() - ballX) / maxV;
+    if (firstPointT > tRange.max()) {
+      return 0;
+    }
+    double minPointInterval = configuration.arenaXLength() / 2d / maxV;
+    double maxPoints = 1d + Math.floor((tRange.max() - firstPointT) / minPointInterval);
+    return (int) Math.min(remainingSteps, maxPoints);
+  }
+
+  // the score function has to be non-decreasing in the own score and non-increasing in the other score
+  private static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> upper(
+      String name,
+      boolean left,
+      ScoreFunction scoreFunction
+  ) {
+    return Bound.upper(
+        name,
+        (dT, tRange) -> new Reducer.Accumulator<>() {
+          private final int nOfSteps = Bound.nOfSteps(dT, tRange);
+          private int count;
+          private double lastT;
+          private PongEnvironment.State last;
+
+          @Override
+          public void add(double t, HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State> snapshot) {
+            lastT = t;
+            last = snapshot.state();
+            count = count + 1;
+          }
+
+          @Override
+          public Double get() {
+            if (last == null) {
+              return Double.POSITIVE_INFINITY;
+            }
+            double ownScore = left ? last.lRacketState().score() : last.rRacketState().score();
+            double otherScore = left ? last.rRacketState().score() : last.lRacketState().score();
+            return scoreFunction.apply(
+                ownScore + maxRemainingPoints(last, lastT, tRange, Math.max(0, nOfSteps - count)),
+                otherScore
+            );
+          }
+        }
+    );
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> score1() {
+    return upper("score.1", true, (own, other) -> own);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> score2() {
+    return upper("score.2", false, (own, other) -> own);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> scoreDiff1() {
+    return upper("score.diff.1", true, (own, other) -> own - other);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> scoreDiff2() {
+    return upper("score.diff.2", false, (own, other) -> own - other);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> shiftedScoreDiff1() {
+    return upper("shifted.score.diff.1", true, (own, other) -> own - other - Math.min(own, other));
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Bound<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>> shiftedScoreDiff2() {
+    return upper("shifted.score.diff.2", false, (own, other) -> own - other - Math.min(own, other));
+  }
+}
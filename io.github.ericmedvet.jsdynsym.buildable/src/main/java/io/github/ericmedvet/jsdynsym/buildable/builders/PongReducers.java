@@ -0,0 +1,160 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.core.Param;
+import io.github.ericmedvet.jsdynsym.control.HomogeneousBiAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
+import io.github.ericmedvet.jsdynsym.control.pong.PongEnvironment;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.pong.reducer|r")
+public class PongReducers {
+  private PongReducers() {
+  }
+
+  private static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> last(
+      String name,
+      ToDoubleFunction<PongEnvironment.State> f
+  ) {
+    return Reducer.<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double>last(
+        s -> f.applyAsDouble(s.state())
+    ).named(name);
+  }
+
+  // average of the offset over the states in which the ball is close to the racket, or the threshold if none
+  private static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> yOffset(
+      String name,
+      Function<PongEnvironment.State, Double> thresholdF,
+      Predicate<PongEnvironment.State> closeF,
+      ToDoubleFunction<PongEnvironment.State> offsetF
+  ) {
+    return Reducer.of(name, () -> new Reducer.Accumulator<>() {
+      private double sum;
+      private int count;
+      private PongEnvironment.State last;
+
+      @Override
+      public void add(double t, HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State> snapshot) {
+        last = snapshot.state();
+        if (closeF.test(last)) {
+          sum = sum + offsetF.applyAsDouble(last);
+          count = count + 1;
+        }
+      }
+
+      @Override
+      public Double get() {
+        return count > 0 ? (sum / count) : thresholdF.apply(last);
+      }
+    });
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> numberOfCollisionsWithBall1() {
+    return last("number.of.collisions.with.ball.1", s -> s.lRacketState().nOfBallCollisions());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> numberOfCollisionsWithBall2() {
+    return last("number.of.collisions.with.ball.2", s -> s.rRacketState().nOfBallCollisions());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> score1() {
+    return last("score.1", s -> s.lRacketState().score());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> score2() {
+    return last("score.2", s -> s.rRacketState().score());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> scoreDiff1() {
+    return last("score.diff.1", s -> s.lRacketState().score() - s.rRacketState().score());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> scoreDiff2() {
+    return last("score.diff.2", s -> s.rRacketState().score() - s.lRacketState().score());
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> shiftedScoreDiff1() {
+    return last(
+        "shifted.score.diff.1",
+        s -> s.lRacketState().score() - s.rRacketState().score() - Math.min(
+            s.lRacketState().score(),
+            s.rRacketState().score()
+        )
+    );
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> shiftedScoreDiff2() {
+    return last(
+        "shifted.score.diff.2",
+        s -> s.rRacketState().score() - s.lRacketState().score() - Math.min(
+            s.lRacketState().score(),
+            s.rRacketState().score()
+        )
+    );
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> yOffsetFromBall1(
+      @Param(value = "ballXProximityThreshold", dD = 0.2) double ballXProximityThreshold
+  ) {
+    return yOffset(
+        "y.offset.from.ball.1",
+        s -> s.configuration().arenaXLength() * ballXProximityThreshold,
+        s -> s.ballState().position().x() < s.configuration().arenaXLength() * ballXProximityThreshold,
+        s -> Math.abs(s.lRacketState().yCenter() - s.ballState().position().y())
+    );
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Reducer<HomogeneousBiAgentTask.Step<double[], double[], PongEnvironment.State>, Double> yOffsetFromBall2(
+      @Param(value = "ballXProximityThreshold", dD = 0.2) double ballXProximityThreshold
+  ) {
+    return yOffset(
+        "y.offset.from.ball.2",
+        s -> s.configuration().arenaXLength() * (1 - ballXProximityThreshold),
+        s -> s.ballState().position().x() > s.configuration().arenaXLength() * (1 - ballXProximityThreshold),
+        s -> Math.abs(s.rRacketState().yCenter() - s.ballState().position().y())
+    );
+  }
+}
@@ -36,7 +36,9 @@
 package io.github.ericmedvet.jsdynsym.buildable.util;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Bound;
 import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.Reducer;
 import io.github.ericmedvet.jsdynsym.control.Simulation;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
 import io.github.ericmedvet.jsdynsym.control.SingleRLAgentTask;
@@ -102,6 +104,22 @@ public class Naming {
         return simulation.simulate(t, dT, tRange);
       }
 
+      @Override
+      public <R> R simulate(T t, double dT, DoubleRange tRange, Reducer<? super S, R> reducer) {
+        return simulation.simulate(t, dT, tRange, reducer);
+      }
+
+      @Override
+      public BoundedOutcome<S> simulate(
+          T t,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super S> bound,
+          double threshold
+      ) {
+        return simulation.simulate(t, dT, tRange, bound, threshold);
+      }
+
       @Override
       public String toString() {
         return name;
@@ -124,6 +142,22 @@ public class Naming {
         return singleAgentTask.simulate(c, dT, tRange);
       }
 
+      @Override
+      public <R> R simulate(C c, double dT, DoubleRange tRange, Reducer<? super Step<O, A, S>, R> reducer) {
+        return singleAgentTask.simulate(c, dT, tRange, reducer);
+      }
+
+      @Override
+      public BoundedOutcome<Step<O, A, S>> simulate(
+          C c,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super Step<O, A, S>> bound,
+          double threshold
+      ) {
+        return singleAgentTask.simulate(c, dT, tRange, bound, threshold);
+      }
+
       @Override
       public String toString() {
         return name;
@@ -145,6 +179,27 @@ public class Naming {
         return singleRLAgentTask.simulate(agent, dT, tRange);
       }
 
+      @Override
+      public <R> R simulate(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          Reducer<? super Step<RewardedInput<O>, A, S>, R> reducer
+      ) {
+        return singleRLAgentTask.simulate(agent, dT, tRange, reducer);
+      }
+
+      @Override
+      public BoundedOutcome<Step<RewardedInput<O>, A, S>> simulate(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super Step<RewardedInput<O>, A, S>> bound,
+          double threshold
+      ) {
+        return singleRLAgentTask.simulate(agent, dT, tRange, bound, threshold);
+      }
+
       @Override
       public Optional<C> example() {
         return singleRLAgentTask.example();
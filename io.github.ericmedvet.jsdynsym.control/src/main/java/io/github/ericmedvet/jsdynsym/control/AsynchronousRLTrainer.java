@@ -0,0 +1,153 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask.Step;
+import io.github.ericmedvet.jsdynsym.core.rl.LinearActorCritic;
+import io.github.ericmedvet.jsdynsym.core.rl.NumericalReinforcementLearningAgent;
+import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent;
+import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent.RewardedInput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * Trains an agent by letting many workers run episodes of a task concurrently, each in its own thread and on its own
+ * environment, while learning on weights shared with the agent. Workers are built by a factory from their own random
+ * generator: for {@link LinearActorCritic}, see {@link #linearActorCritic(SingleRLAgentTask, LinearActorCritic,
+ * LinearActorCritic.SynchronizationPolicy, int, double, DoubleRange)}. With a single worker, episodes are run in the
+ * calling thread and training is reproducible, given the random generator.
+ */
+public class AsynchronousRLTrainer<C extends ReinforcementLearningAgent<O, A, ?>, O, A, S> {
+
+  private final SingleRLAgentTask<C, O, A, S> task;
+  private final Function<RandomGenerator, ? extends C> workerFactory;
+  private final int nOfWorkers;
+  private final double dT;
+  private final DoubleRange tRange;
+
+  public AsynchronousRLTrainer(
+      SingleRLAgentTask<C, O, A, S> task,
+      Function<RandomGenerator, ? extends C> workerFactory,
+      int nOfWorkers,
+      double dT,
+      DoubleRange tRange
+  ) {
+    if (nOfWorkers < 1) {
+      throw new IllegalArgumentException("Number of workers must be positive: %d found".formatted(nOfWorkers));
+    }
+    this.task = task;
+    this.workerFactory = workerFactory;
+    this.nOfWorkers = nOfWorkers;
+    this.dT = dT;
+    this.tRange = tRange;
+  }
+
+  @FunctionalInterface
+  public interface EpisodeListener<O, A, S> {
+    void listen(int workerIndex, int episodeIndex, Simulation.Outcome<Step<RewardedInput<O>, A, S>> outcome);
+  }
+
+  public static <S> AsynchronousRLTrainer<NumericalReinforcementLearningAgent<?>, double[], double[], S> linearActorCritic(
+      SingleRLAgentTask<NumericalReinforcementLearningAgent<?>, double[], double[], S> task,
+      LinearActorCritic agent,
+      LinearActorCritic.SynchronizationPolicy synchronizationPolicy,
+      int nOfWorkers,
+      double dT,
+      DoubleRange tRange
+  ) {
+    return new AsynchronousRLTrainer<>(
+        task,
+        randomGenerator -> agent.worker(randomGenerator, synchronizationPolicy),
+        nOfWorkers,
+        dT,
+        tRange
+    );
+  }
+
+  public int nOfWorkers() {
+    return nOfWorkers;
+  }
+
+  /**
+   * Runs {@code nOfEpisodes} episodes overall, distributed among the workers on a first-come first-served basis, and
+   * notifies the listener, from the worker thread, at the end of each episode. Worker random generators are seeded,
+   * in order, from the given random generator.
+   */
+  public void train(int nOfEpisodes, RandomGenerator randomGenerator, EpisodeListener<O, A, S> listener) {
+    List<C> workers = new ArrayList<>(nOfWorkers);
+    for (int i = 0; i < nOfWorkers; i = i + 1) {
+      workers.add(workerFactory.apply(new Random(randomGenerator.nextLong())));
+    }
+    AtomicInteger episodeCounter = new AtomicInteger();
+    if (nOfWorkers == 1) {
+      run(0, workers.getFirst(), nOfEpisodes, episodeCounter, listener);
+      return;
+    }
+    List<Callable<Void>> callables = new ArrayList<>(nOfWorkers);
+    for (int i = 0; i < nOfWorkers; i = i + 1) {
+      int workerIndex = i;
+      callables.add(() -> {
+        run(workerIndex, workers.get(workerIndex), nOfEpisodes, episodeCounter, listener);
+        return null;
+      });
+    }
+    try (ExecutorService executorService = Executors.newFixedThreadPool(nOfWorkers)) {
+      for (Future<Void> future : executorService.invokeAll(callables)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while training", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Worker failed: %s".formatted(e.getCause()), e.getCause());
+    }
+  }
+
+  public void train(int nOfEpisodes, RandomGenerator randomGenerator) {
+    train(nOfEpisodes, randomGenerator, (workerIndex, episodeIndex, outcome) -> {});
+  }
+
+  private void run(
+      int workerIndex,
+      C worker,
+      int nOfEpisodes,
+      AtomicInteger episodeCounter,
+      EpisodeListener<O, A, S> listener
+  ) {
+    while (!Thread.currentThread().isInterrupted()) {
+      int episodeIndex = episodeCounter.getAndIncrement();
+      if (episodeIndex >= nOfEpisodes) {
+        return;
+      }
+      listener.listen(workerIndex, episodeIndex, task.simulate(worker, dT, tRange));
+    }
+  }
+}
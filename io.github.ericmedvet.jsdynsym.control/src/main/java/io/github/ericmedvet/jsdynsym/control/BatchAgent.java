@@ -0,0 +1,123 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
+import io.github.ericmedvet.jsdynsym.core.rl.NumericalReinforcementLearningAgent;
+import java.util.List;
+
+/**
+ * An agent driving many environments at once. Observations, rewards, and actions are batches with one row per
+ * environment: observations and actions are laid out row-major, i.e., the {@code j}-th element of the {@code k}-th row
+ * is at {@code k * n + j}, where {@code n} is the row size. A row whose time is NaN belongs to an environment which is
+ * not running: its observation and reward are stale, and its agent should not be stepped.
+ */
+public interface BatchAgent {
+
+  int nOfOutputs();
+
+  void step(double[] ts, double[] observations, double[] rewards, double[] actions);
+
+  default void reset(int environmentIndex) {
+  }
+
+  static BatchAgent from(MultivariateRealFunction function) {
+    return new BatchAgent() {
+      @Override
+      public int nOfOutputs() {
+        return function.nOfOutputs();
+      }
+
+      @Override
+      public void step(double[] ts, double[] observations, double[] rewards, double[] actions) {
+        System.arraycopy(function.computeBatch(observations), 0, actions, 0, actions.length);
+      }
+
+      @Override
+      public String toString() {
+        return "batch[%s]".formatted(function);
+      }
+    };
+  }
+
+  static BatchAgent from(List<? extends NumericalDynamicalSystem<?>> agents) {
+    int nOfInputs = agents.getFirst().nOfInputs();
+    int nOfOutputs = agents.getFirst().nOfOutputs();
+    agents.forEach(agent -> agent.checkDimension(nOfInputs, nOfOutputs));
+    double[] input = new double[nOfInputs];
+    double[] output = new double[nOfOutputs];
+    return new BatchAgent() {
+      @Override
+      public int nOfOutputs() {
+        return nOfOutputs;
+      }
+
+      @Override
+      public void step(double[] ts, double[] observations, double[] rewards, double[] actions) {
+        for (int k = 0; k < ts.length; k = k + 1) {
+          if (Double.isNaN(ts[k])) {
+            continue;
+          }
+          System.arraycopy(observations, k * nOfInputs, input, 0, nOfInputs);
+          agents.get(k).step(ts[k], input, output);
+          System.arraycopy(output, 0, actions, k * nOfOutputs, nOfOutputs);
+        }
+      }
+
+      @Override
+      public void reset(int environmentIndex) {
+        agents.get(environmentIndex).reset();
+      }
+    };
+  }
+
+  static BatchAgent fromRL(List<? extends NumericalReinforcementLearningAgent<?>> agents) {
+    int nOfInputs = agents.getFirst().nOfInputs();
+    int nOfOutputs = agents.getFirst().nOfOutputs();
+    agents.forEach(agent -> agent.checkDimension(nOfInputs, nOfOutputs));
+    double[] input = new double[nOfInputs];
+    double[] output = new double[nOfOutputs];
+    return new BatchAgent() {
+      @Override
+      public int nOfOutputs() {
+        return nOfOutputs;
+      }
+
+      @Override
+      public void step(double[] ts, double[] observations, double[] rewards, double[] actions) {
+        for (int k = 0; k < ts.length; k = k + 1) {
+          if (Double.isNaN(ts[k])) {
+            continue;
+          }
+          System.arraycopy(observations, k * nOfInputs, input, 0, nOfInputs);
+          agents.get(k).step(ts[k], input, rewards[k], output);
+          System.arraycopy(output, 0, actions, k * nOfOutputs, nOfOutputs);
+        }
+      }
+
+      @Override
+      public void reset(int environmentIndex) {
+        agents.get(environmentIndex).reset();
+      }
+    };
+  }
+}
@@ -27,11 +27,42 @@ public interface BiSimulation<T1, T2, S, O extends Simulation.Outcome<S>> extend
 
   O simulate(T1 t1, T2 t2, double dT, DoubleRange tRange);
 
+  default <R> R simulate(T1 t1, T2 t2, double dT, DoubleRange tRange, Reducer<? super S, R> reducer) {
+    return Simulation.super.simulate(new Pair<>(t1, t2), dT, tRange, reducer);
+  }
+
+  default BoundedOutcome<S> simulate(
+      T1 t1,
+      T2 t2,
+      double dT,
+      DoubleRange tRange,
+      Bound<? super S> bound,
+      double threshold
+  ) {
+    return Simulation.super.simulate(new Pair<>(t1, t2), dT, tRange, bound, threshold);
+  }
+
   @Override
   default O simulate(Pair<T1, T2> tPair, double dT, DoubleRange tRange) {
     return simulate(tPair.first(), tPair.second(), dT, tRange);
   }
 
+  @Override
+  default <R> R simulate(Pair<T1, T2> tPair, double dT, DoubleRange tRange, Reducer<? super S, R> reducer) {
+    return simulate(tPair.first(), tPair.second(), dT, tRange, reducer);
+  }
+
+  @Override
+  default BoundedOutcome<S> simulate(
+      Pair<T1, T2> tPair,
+      double dT,
+      DoubleRange tRange,
+      Bound<? super S> bound,
+      double threshold
+  ) {
+    return simulate(tPair.first(), tPair.second(), dT, tRange, bound, threshold);
+  }
+
   default Optional<T1> example1() {
     return Optional.empty();
   }
@@ -0,0 +1,92 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import java.util.function.BiFunction;
+
+/**
+ * An optimistic bound on the fitness that a simulation can still achieve, given the snapshots seen so far: used to cut
+ * hopeless simulations as soon as the bound becomes worse than a threshold (see
+ * {@link Simulation#simulate(Object, double, DoubleRange, Bound, double)}). The fitness is to be maximized, and the
+ * bound is an upper bound, unless {@link #isLower()}: then the fitness is to be minimized and the bound is a lower
+ * bound. The bound should be monotone, i.e., never become more optimistic as snapshots are added, and may assume that
+ * the simulation runs for the full time range.
+ */
+public interface Bound<S> {
+
+  Reducer.Accumulator<S, Double> accumulator(double dT, DoubleRange tRange);
+
+  boolean isLower();
+
+  static <S> Bound<S> lower(
+      String name,
+      BiFunction<Double, DoubleRange, ? extends Reducer.Accumulator<S, Double>> accumulatorFunction
+  ) {
+    return of(name, true, accumulatorFunction);
+  }
+
+  /**
+   * Returns the number of steps of a simulation of the given time range, computed as the simulations do, i.e., by
+   * repeatedly adding {@code dT} to the initial time.
+   */
+  static int nOfSteps(double dT, DoubleRange tRange) {
+    int n = 0;
+    for (double t = tRange.min(); t <= tRange.max(); t = t + dT) {
+      n = n + 1;
+    }
+    return n;
+  }
+
+  private static <S> Bound<S> of(
+      String name,
+      boolean lower,
+      BiFunction<Double, DoubleRange, ? extends Reducer.Accumulator<S, Double>> accumulatorFunction
+  ) {
+    return new Bound<>() {
+      @Override
+      public Reducer.Accumulator<S, Double> accumulator(double dT, DoubleRange tRange) {
+        return accumulatorFunction.apply(dT, tRange);
+      }
+
+      @Override
+      public boolean isLower() {
+        return lower;
+      }
+
+      @Override
+      public String toString() {
+        return name;
+      }
+    };
+  }
+
+  static <S> Bound<S> upper(
+      String name,
+      BiFunction<Double, DoubleRange, ? extends Reducer.Accumulator<S, Double>> accumulatorFunction
+  ) {
+    return of(name, false, accumulatorFunction);
+  }
+
+  default boolean isHopeless(double bound, double threshold) {
+    return isLower() ? (bound > threshold) : (bound < threshold);
+  }
+}
@@ -0,0 +1,375 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.Pair;
+import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent.RewardedInput;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * An outcome made of snapshots with three fields (an observation, an action, and a state), stored by step index in
+ * columns rather than as one object per step. Fields which are {@code double[]} of constant length, or
+ * {@link RewardedInput} or {@link Pair} of such arrays, are stored in primitive columns; other fields are stored as
+ * objects. Snapshots are rebuilt upon access, hence {@link #snapshots()} is a lazy view and does not preserve the
+ * identity of the stored arrays. Times must be added in increasing order.
+ */
+public class ColumnarOutcome<O, A, S, V> implements Simulation.Outcome<V> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Assembler<O, A, S, V> assembler;
+  private final Column<O> observations;
+  private final Column<A> actions;
+  private final Column<S> states;
+  private double[] ts;
+  private int size;
+
+  public ColumnarOutcome(Assembler<O, A, S, V> assembler) {
+    this.assembler = assembler;
+    observations = new Column<>();
+    actions = new Column<>();
+    states = new Column<>();
+    ts = new double[INITIAL_CAPACITY];
+  }
+
+  @FunctionalInterface
+  public interface Assembler<O, A, S, V> {
+    V assemble(O observation, A action, S state);
+  }
+
+  public static <O, A, S> ColumnarOutcome<O, A, S, SingleAgentTask.Step<O, A, S>> ofSteps() {
+    return new ColumnarOutcome<>(SingleAgentTask.Step::new);
+  }
+
+  public static <O, A, S> ColumnarOutcome<Pair<O, O>, Pair<A, A>, S, HomogeneousBiAgentTask.Step<O, A, S>> ofBiSteps() {
+    return new ColumnarOutcome<>(HomogeneousBiAgentTask.Step::new);
+  }
+
+  public void add(double t, O observation, A action, S state) {
+    if (size > 0 && t <= ts[size - 1]) {
+      throw new IllegalArgumentException("Time %f is not after last time %f".formatted(t, ts[size - 1]));
+    }
+    if (size == ts.length) {
+      ts = Arrays.copyOf(ts, ts.length * 2);
+    }
+    ts[size] = t;
+    observations.add(observation);
+    actions.add(action);
+    states.add(state);
+    size = size + 1;
+  }
+
+  public A action(int index) {
+    return actions.get(checkIndex(index));
+  }
+
+  public V get(int index) {
+    checkIndex(index);
+    return assembler.assemble(observations.get(index), actions.get(index), states.get(index));
+  }
+
+  /**
+   * Returns the index of the step at time {@code t}, or {@code -1} if there is no such step.
+   */
+  public int indexOf(double t) {
+    int index = Arrays.binarySearch(ts, 0, size, t);
+    return index >= 0 ? index : -1;
+  }
+
+  public O observation(int index) {
+    return observations.get(checkIndex(index));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public SortedMap<Double, V> snapshots() {
+    return new View(0, -1);
+  }
+
+  public S state(int index) {
+    return states.get(checkIndex(index));
+  }
+
+  public double t(int index) {
+    return ts[checkIndex(index)];
+  }
+
+  @Override
+  public String toString() {
+    return "columnarOutcome[n=%d]".formatted(size);
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index %d out of bounds for size %d".formatted(index, size));
+    }
+    return index;
+  }
+
+  // index of the first step with time not lower than t
+  private int lowerBound(double t) {
+    int index = Arrays.binarySearch(ts, 0, size, t);
+    return index >= 0 ? index : (-index - 1);
+  }
+
+  private static final class Column<T> {
+    private Type type;
+    private int width;
+    private int size;
+    private double[] values;
+    private double[] rewards;
+    private Object[] objects;
+
+    private Column() {
+      type = Type.UNKNOWN;
+    }
+
+    private enum Type {
+      UNKNOWN, DOUBLES, REWARDED_DOUBLES, PAIRED_DOUBLES, OBJECTS
+    }
+
+    private static Type typeOf(Object value) {
+      if (value instanceof double[]) {
+        return Type.DOUBLES;
+      }
+      if (value instanceof RewardedInput<?> rewardedInput && rewardedInput.input() instanceof double[]) {
+        return Type.REWARDED_DOUBLES;
+      }
+      if (value instanceof Pair<?, ?> pair && pair.first() instanceof double[] first
+          && pair.second() instanceof double[] second && first.length == second.length) {
+        return Type.PAIRED_DOUBLES;
+      }
+      return Type.OBJECTS;
+    }
+
+    private static int widthOf(Type type, Object value) {
+      return switch (type) {
+        case DOUBLES -> ((double[]) value).length;
+        case REWARDED_DOUBLES -> ((double[]) ((RewardedInput<?>) value).input()).length;
+        case PAIRED_DOUBLES -> 2 * ((double[]) ((Pair<?, ?>) value).first()).length;
+        default -> 0;
+      };
+    }
+
+    private void add(T value) {
+      if (type.equals(Type.UNKNOWN)) {
+        type = typeOf(value);
+        width = widthOf(type, value);
+        values = new double[INITIAL_CAPACITY * width];
+        rewards = type.equals(Type.REWARDED_DOUBLES) ? new double[INITIAL_CAPACITY] : null;
+        objects = type.equals(Type.OBJECTS) ? new Object[INITIAL_CAPACITY] : null;
+      } else if (!type.equals(Type.OBJECTS) && (!typeOf(value).equals(type) || widthOf(type, value) != width)) {
+        toObjects();
+      }
+      switch (type) {
+        case DOUBLES -> System.arraycopy((double[]) value, 0, values(), size * width, width);
+        case REWARDED_DOUBLES -> {
+          RewardedInput<?> rewardedInput = (RewardedInput<?>) value;
+          System.arraycopy((double[]) rewardedInput.input(), 0, values(), size * width, width);
+          rewards()[size] = rewardedInput.reward();
+        }
+        case PAIRED_DOUBLES -> {
+          Pair<?, ?> pair = (Pair<?, ?>) value;
+          System.arraycopy((double[]) pair.first(), 0, values(), size * width, width / 2);
+          System.arraycopy((double[]) pair.second(), 0, values(), size * width + width / 2, width / 2);
+        }
+        default -> objects()[size] = value;
+      }
+      size = size + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int index) {
+      int offset = index * width;
+      return (T) switch (type) {
+        case DOUBLES -> Arrays.copyOfRange(values, offset, offset + width);
+        case REWARDED_DOUBLES -> new RewardedInput<>(
+            Arrays.copyOfRange(values, offset, offset + width),
+            rewards[index]
+        );
+        case PAIRED_DOUBLES -> new Pair<>(
+            Arrays.copyOfRange(values, offset, offset + width / 2),
+            Arrays.copyOfRange(values, offset + width / 2, offset + width)
+        );
+        default -> objects[index];
+      };
+    }
+
+    private double[] rewards() {
+      if (size == rewards.length) {
+        rewards = Arrays.copyOf(rewards, rewards.length * 2);
+      }
+      return rewards;
+    }
+
+    private Object[] objects() {
+      if (size == objects.length) {
+        objects = Arrays.copyOf(objects, objects.length * 2);
+      }
+      return objects;
+    }
+
+    private void toObjects() {
+      Object[] newObjects = new Object[Math.max(INITIAL_CAPACITY, size * 2)];
+      for (int i = 0; i < size; i = i + 1) {
+        newObjects[i] = get(i);
+      }
+      type = Type.OBJECTS;
+      width = 0;
+      values = null;
+      rewards = null;
+      objects = newObjects;
+    }
+
+    private double[] values() {
+      if ((size + 1) * width > values.length) {
+        values = Arrays.copyOf(values, Math.max(values.length * 2, (size + 1) * width));
+      }
+      return values;
+    }
+  }
+
+  // a view on the steps from index from (inclusive) to index to (exclusive), with -1 meaning the current size
+  private final class View extends AbstractMap<Double, V> implements SortedMap<Double, V> {
+    private final int from;
+    private final int to;
+
+    private View(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Comparator<? super Double> comparator() {
+      return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return index(key) >= 0;
+    }
+
+    @Override
+    public Set<Entry<Double, V>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<Double, V>> iterator() {
+          int end = end();
+          return new Iterator<>() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+              return index < end;
+            }
+
+            @Override
+            public Entry<Double, V> next() {
+              if (index >= end) {
+                throw new NoSuchElementException();
+              }
+              Entry<Double, V> entry = new SimpleImmutableEntry<>(ts[index], ColumnarOutcome.this.get(index));
+              index = index + 1;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return View.this.size();
+        }
+      };
+    }
+
+    @Override
+    public Double firstKey() {
+      if (isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      return ts[from];
+    }
+
+    @Override
+    public V get(Object key) {
+      int index = index(key);
+      return index >= 0 ? ColumnarOutcome.this.get(index) : null;
+    }
+
+    @Override
+    public SortedMap<Double, V> headMap(Double toKey) {
+      return new View(from, clip(lowerBound(toKey)));
+    }
+
+    @Override
+    public Double lastKey() {
+      if (isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      return ts[end() - 1];
+    }
+
+    @Override
+    public int size() {
+      return end() - from;
+    }
+
+    @Override
+    public SortedMap<Double, V> subMap(Double fromKey, Double toKey) {
+      if (fromKey > toKey) {
+        throw new IllegalArgumentException("fromKey %f > toKey %f".formatted(fromKey, toKey));
+      }
+      int newFrom = clip(lowerBound(fromKey));
+      return new View(newFrom, Math.max(newFrom, clip(lowerBound(toKey))));
+    }
+
+    @Override
+    public SortedMap<Double, V> tailMap(Double fromKey) {
+      return new View(clip(lowerBound(fromKey)), end());
+    }
+
+    private int clip(int index) {
+      return Math.max(from, Math.min(end(), index));
+    }
+
+    private int end() {
+      return to < 0 ? size : to;
+    }
+
+    private int index(Object key) {
+      if (!(key instanceof Double t)) {
+        return -1;
+      }
+      int index = indexOf(t);
+      return (index >= from && index < end()) ? index : -1;
+    }
+  }
+}
@@ -22,10 +22,9 @@ package io.github.ericmedvet.jsdynsym.control;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.Pair;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjDoubleConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -42,26 +41,79 @@ public interface HomogeneousBiAgentTask<C extends DynamicalSystem<O, A, ?>, O, A
     return new HomogeneousBiAgentTask<>() {
       @Override
       public Outcome<Step<O, A, S>> simulate(C agent1, C agent2, double dT, DoubleRange tRange) {
+        ColumnarOutcome<Pair<O, O>, Pair<A, A>, S, Step<O, A, S>> outcome = ColumnarOutcome.ofBiSteps();
+        run(
+            agent1,
+            agent2,
+            dT,
+            tRange,
+            (step, t) -> outcome.add(t, step.observations(), step.actions(), step.state()),
+            () -> false
+        );
+        return outcome;
+      }
+
+      @Override
+      public BoundedOutcome<Step<O, A, S>> simulate(
+          C agent1,
+          C agent2,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super Step<O, A, S>> bound,
+          double threshold
+      ) {
+        ColumnarOutcome<Pair<O, O>, Pair<A, A>, S, Step<O, A, S>> outcome = ColumnarOutcome.ofBiSteps();
+        return SimulationLoops.bounded(
+            (consumer, aborted) -> run(agent1, agent2, dT, tRange, consumer, aborted),
+            outcome,
+            (step, t) -> outcome.add(t, step.observations(), step.actions(), step.state()),
+            bound,
+            dT,
+            tRange,
+            threshold
+        );
+      }
+
+      @Override
+      public <R> R simulate(
+          C agent1,
+          C agent2,
+          double dT,
+          DoubleRange tRange,
+          Reducer<? super Step<O, A, S>, R> reducer
+      ) {
+        return SimulationLoops.<Step<O, A, S>, R>reduced(
+            (consumer, aborted) -> run(agent1, agent2, dT, tRange, consumer, aborted),
+            reducer
+        );
+      }
+
+      private void run(
+          C agent1,
+          C agent2,
+          double dT,
+          DoubleRange tRange,
+          ObjDoubleConsumer<Step<O, A, S>> consumer,
+          BooleanSupplier aborted
+      ) {
         DynamicalSystem<Pair<A, A>, Pair<O, O>, S> biEnvironment = biEnvironmentSupplier.get();
         biEnvironment.reset();
         agent1.reset();
         agent2.reset();
         double t = tRange.min();
-        Map<Double, HomogeneousBiAgentTask.Step<O, A, S>> steps = new HashMap<>();
         Pair<O, O> observations = new Pair<>(
             initialObservation,
             initialObservation
         );
-        while (t <= tRange.max() && !stopCondition.test(biEnvironment.getState())) {
+        while (t <= tRange.max() && !stopCondition.test(biEnvironment.getState()) && !aborted.getAsBoolean()) {
           Pair<A, A> actions = new Pair<>(
               agent1.step(t, observations.first()),
               agent2.step(t, observations.second())
           );
           observations = biEnvironment.step(t, actions);
-          steps.put(t, new Step<>(observations, actions, biEnvironment.getState()));
+          consumer.accept(new Step<>(observations, actions, biEnvironment.getState()), t);
           t = t + dT;
         }
-        return Outcome.of(new TreeMap<>(steps));
       }
 
       @Override
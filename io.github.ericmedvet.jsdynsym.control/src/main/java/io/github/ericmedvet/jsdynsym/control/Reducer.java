@@ -0,0 +1,285 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.BitSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A reduction of the snapshots of a simulation to a single value, computed incrementally while the simulation runs,
+ * hence without retaining the snapshots. Reducers are stateless: the state of a reduction is kept in the
+ * {@link Accumulator} obtained for each simulation.
+ */
+public interface Reducer<S, R> {
+
+  interface Accumulator<S, R> {
+    void add(double t, S snapshot);
+
+    R get();
+  }
+
+  Accumulator<S, R> accumulator();
+
+  static <S> Reducer<S, Double> average(ToDoubleFunction<? super S> f) {
+    return of("avg", () -> new Accumulator<>() {
+      // same summation as DoubleStream.average(), so that reductions match the ones done on streams of snapshots
+      private final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+
+      @Override
+      public void add(double t, S snapshot) {
+        statistics.accept(f.applyAsDouble(snapshot));
+      }
+
+      @Override
+      public Double get() {
+        if (statistics.getCount() == 0) {
+          throw new NoSuchElementException("No snapshots");
+        }
+        return statistics.getAverage();
+      }
+    });
+  }
+
+  static <S, V> Reducer<S, V> argMin(ToDoubleFunction<? super S> key, Function<? super S, ? extends V> f) {
+    return of("arg.min", () -> new Accumulator<>() {
+      private double min = Double.POSITIVE_INFINITY;
+      private V value;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, S snapshot) {
+        double k = key.applyAsDouble(snapshot);
+        if (empty || k < min) {
+          min = k;
+          value = f.apply(snapshot);
+          empty = false;
+        }
+      }
+
+      @Override
+      public V get() {
+        if (empty) {
+          throw new NoSuchElementException("No snapshots");
+        }
+        return value;
+      }
+    });
+  }
+
+  static <S, R1, R2, R> Reducer<S, R> combine(
+      Reducer<S, R1> reducer1,
+      Reducer<S, R2> reducer2,
+      BiFunction<? super R1, ? super R2, ? extends R> combiner
+  ) {
+    return of("%s+%s".formatted(reducer1, reducer2), () -> {
+      Accumulator<S, R1> accumulator1 = reducer1.accumulator();
+      Accumulator<S, R2> accumulator2 = reducer2.accumulator();
+      return new Accumulator<>() {
+        @Override
+        public void add(double t, S snapshot) {
+          accumulator1.add(t, snapshot);
+          accumulator2.add(t, snapshot);
+        }
+
+        @Override
+        public R get() {
+          return combiner.apply(accumulator1.get(), accumulator2.get());
+        }
+      };
+    });
+  }
+
+  /**
+   * Counts the distinct cells visited by the snapshots, given a function mapping each snapshot to the index of a cell
+   * in {@code [0, nOfCells)}. Visited cells are recorded in a bit set.
+   */
+  static <S> Reducer<S, Integer> distinctCells(ToIntFunction<? super S> cell, int nOfCells) {
+    return of("distinct.cells", () -> new Accumulator<>() {
+      private final BitSet visited = new BitSet(nOfCells);
+
+      @Override
+      public void add(double t, S snapshot) {
+        visited.set(cell.applyAsInt(snapshot));
+      }
+
+      @Override
+      public Integer get() {
+        return visited.cardinality();
+      }
+    });
+  }
+
+  static <S, V> Reducer<S, V> last(Function<? super S, ? extends V> f) {
+    return lastWithTime((t, snapshot) -> f.apply(snapshot));
+  }
+
+  static <S> Reducer<S, Double> lastTime() {
+    return lastWithTime((t, snapshot) -> t);
+  }
+
+  /**
+   * Computes a value from the last snapshot and its time. Only the last snapshot is retained.
+   */
+  static <S, V> Reducer<S, V> lastWithTime(BiFunction<Double, ? super S, ? extends V> f) {
+    return of("last", () -> new Accumulator<>() {
+      private double lastT;
+      private S last;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, S snapshot) {
+        lastT = t;
+        last = snapshot;
+        empty = false;
+      }
+
+      @Override
+      public V get() {
+        if (empty) {
+          throw new NoSuchElementException("No snapshots");
+        }
+        return f.apply(lastT, last);
+      }
+    });
+  }
+
+  static <S> Reducer<S, Double> max(ToDoubleFunction<? super S> f) {
+    return extremum("max", f, 1);
+  }
+
+  static <S> Reducer<S, Double> min(ToDoubleFunction<? super S> f) {
+    return extremum("min", f, -1);
+  }
+
+  static <S, R> Reducer<S, R> of(String name, Supplier<? extends Accumulator<S, R>> accumulatorSupplier) {
+    return new Reducer<>() {
+      @Override
+      public Accumulator<S, R> accumulator() {
+        return accumulatorSupplier.get();
+      }
+
+      @Override
+      public String toString() {
+        return name;
+      }
+    };
+  }
+
+  static <S> Reducer<S, Double> sum(ToDoubleFunction<? super S> f) {
+    return of("sum", () -> new Accumulator<>() {
+      // same summation as DoubleStream.sum()
+      private final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+
+      @Override
+      public void add(double t, S snapshot) {
+        statistics.accept(f.applyAsDouble(snapshot));
+      }
+
+      @Override
+      public Double get() {
+        return statistics.getSum();
+      }
+    });
+  }
+
+  private static <S> Reducer<S, Double> extremum(String name, ToDoubleFunction<? super S> f, double sign) {
+    return of(name, () -> new Accumulator<>() {
+      private double extremum;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, S snapshot) {
+        double v = f.applyAsDouble(snapshot);
+        if (empty || sign * v > sign * extremum) {
+          extremum = v;
+          empty = false;
+        }
+      }
+
+      @Override
+      public Double get() {
+        if (empty) {
+          throw new NoSuchElementException("No snapshots");
+        }
+        return extremum;
+      }
+    });
+  }
+
+  default <R2> Reducer<S, R2> andThen(Function<? super R, ? extends R2> f) {
+    Reducer<S, R> thisReducer = this;
+    return of(toString(), () -> {
+      Accumulator<S, R> accumulator = thisReducer.accumulator();
+      return new Accumulator<>() {
+        @Override
+        public void add(double t, S snapshot) {
+          accumulator.add(t, snapshot);
+        }
+
+        @Override
+        public R2 get() {
+          return f.apply(accumulator.get());
+        }
+      };
+    });
+  }
+
+  /**
+   * Returns a reducer which only sees the snapshots meeting the given condition.
+   */
+  default Reducer<S, R> filtered(Predicate<? super S> condition) {
+    Reducer<S, R> thisReducer = this;
+    return of("%s|filtered".formatted(this), () -> {
+      Accumulator<S, R> accumulator = thisReducer.accumulator();
+      return new Accumulator<>() {
+        @Override
+        public void add(double t, S snapshot) {
+          if (condition.test(snapshot)) {
+            accumulator.add(t, snapshot);
+          }
+        }
+
+        @Override
+        public R get() {
+          return accumulator.get();
+        }
+      };
+    });
+  }
+
+  default Reducer<S, R> named(String name) {
+    Reducer<S, R> thisReducer = this;
+    return of(name, thisReducer::accumulator);
+  }
+
+  default R reduce(Simulation.Outcome<? extends S> outcome) {
+    Accumulator<S, R> accumulator = accumulator();
+    outcome.snapshots().forEach(accumulator::add);
+    return accumulator.get();
+  }
+}
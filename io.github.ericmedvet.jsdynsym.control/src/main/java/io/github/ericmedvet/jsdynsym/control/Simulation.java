@@ -20,8 +20,10 @@
 package io.github.ericmedvet.jsdynsym.control;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import java.util.Map;
 import java.util.Optional;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 public interface Simulation<T, S, O extends Simulation.Outcome<S>> {
 
@@ -33,8 +35,46 @@ public interface Simulation<T, S, O extends Simulation.Outcome<S>> {
     }
   }
 
+  /**
+   * The outcome of a simulation which may have been cut before the end of the time range, because its bound became
+   * worse than the threshold.
+   */
+  record BoundedOutcome<S>(Outcome<S> outcome, boolean aborted) implements Outcome<S> {
+    @Override
+    public SortedMap<Double, S> snapshots() {
+      return outcome.snapshots();
+    }
+  }
+
   O simulate(T t, double dT, DoubleRange tRange);
 
+  /**
+   * Simulates and reduces the snapshots to a single value. Implementations should feed the reducer as the simulation
+   * runs, without retaining the snapshots: this default implementation does not, and just reduces the full outcome.
+   */
+  default <R> R simulate(T t, double dT, DoubleRange tRange, Reducer<? super S, R> reducer) {
+    return reducer.reduce(simulate(t, dT, tRange));
+  }
+
+  /**
+   * Simulates until the end of the time range or until the bound becomes worse than the threshold, whichever comes
+   * first. Implementations should stop the simulation as soon as the bound becomes worse: this default implementation
+   * does not, and just truncates the full outcome.
+   */
+  default BoundedOutcome<S> simulate(T t, double dT, DoubleRange tRange, Bound<? super S> bound, double threshold) {
+    SortedMap<Double, S> snapshots = simulate(t, dT, tRange).snapshots();
+    Reducer.Accumulator<? super S, Double> accumulator = bound.accumulator(dT, tRange);
+    SortedMap<Double, S> partialSnapshots = new TreeMap<>();
+    for (Map.Entry<Double, S> entry : snapshots.entrySet()) {
+      accumulator.add(entry.getKey(), entry.getValue());
+      partialSnapshots.put(entry.getKey(), entry.getValue());
+      if (bound.isHopeless(accumulator.get(), threshold)) {
+        return new BoundedOutcome<>(Outcome.of(partialSnapshots), true);
+      }
+    }
+    return new BoundedOutcome<>(Outcome.of(snapshots), false);
+  }
+
   default Optional<T> example() {
     return Optional.empty();
   }
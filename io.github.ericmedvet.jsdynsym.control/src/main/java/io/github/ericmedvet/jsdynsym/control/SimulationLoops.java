@@ -0,0 +1,73 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Simulation.BoundedOutcome;
+import io.github.ericmedvet.jsdynsym.control.Simulation.Outcome;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjDoubleConsumer;
+
+final class SimulationLoops {
+
+  /**
+   * The loop of a simulation: it passes each snapshot, with its time, to the consumer and stops, besides when its own
+   * stop conditions are met, as soon as {@code aborted} becomes true.
+   */
+  @FunctionalInterface
+  interface Loop<S> {
+    void run(ObjDoubleConsumer<S> consumer, BooleanSupplier aborted);
+  }
+
+  private SimulationLoops() {
+  }
+
+  /**
+   * Runs the loop, passing each snapshot to the recorder, which is expected to add it to the outcome, until the bound
+   * becomes worse than the threshold.
+   */
+  static <S> BoundedOutcome<S> bounded(
+      Loop<S> loop,
+      Outcome<S> outcome,
+      ObjDoubleConsumer<? super S> recorder,
+      Bound<? super S> bound,
+      double dT,
+      DoubleRange tRange,
+      double threshold
+  ) {
+    Reducer.Accumulator<? super S, Double> accumulator = bound.accumulator(dT, tRange);
+    boolean[] aborted = new boolean[1];
+    loop.run((snapshot, t) -> {
+      recorder.accept(snapshot, t);
+      accumulator.add(t, snapshot);
+      aborted[0] = bound.isHopeless(accumulator.get(), threshold);
+    }, () -> aborted[0]);
+    return new BoundedOutcome<>(outcome, aborted[0]);
+  }
+
+  /**
+   * Runs the loop, feeding the reducer as the simulation runs.
+   */
+  static <S, R> R reduced(Loop<S> loop, Reducer<? super S, R> reducer) {
+    Reducer.Accumulator<? super S, R> accumulator = reducer.accumulator();
+    loop.run((snapshot, t) -> accumulator.add(t, snapshot), () -> false);
+    return accumulator.get();
+  }
+}
@@ -22,10 +22,9 @@ package io.github.ericmedvet.jsdynsym.control;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask.Step;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjDoubleConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -43,21 +42,65 @@ public interface SingleAgentTask<C extends DynamicalSystem<O, A, ?>, O, A, S> ex
     return new SingleAgentTask<>() {
       @Override
       public Outcome<Step<O, A, S>> simulate(C agent, double dT, DoubleRange tRange) {
+        ColumnarOutcome<O, A, S, Step<O, A, S>> outcome = ColumnarOutcome.ofSteps();
+        run(
+            agent,
+            dT,
+            tRange,
+            (step, t) -> outcome.add(t, step.observation(), step.action(), step.state()),
+            () -> false
+        );
+        return outcome;
+      }
+
+      @Override
+      public BoundedOutcome<Step<O, A, S>> simulate(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super Step<O, A, S>> bound,
+          double threshold
+      ) {
+        ColumnarOutcome<O, A, S, Step<O, A, S>> outcome = ColumnarOutcome.ofSteps();
+        return SimulationLoops.bounded(
+            (consumer, aborted) -> run(agent, dT, tRange, consumer, aborted),
+            outcome,
+            (step, t) -> outcome.add(t, step.observation(), step.action(), step.state()),
+            bound,
+            dT,
+            tRange,
+            threshold
+        );
+      }
+
+      @Override
+      public <R> R simulate(C agent, double dT, DoubleRange tRange, Reducer<? super Step<O, A, S>, R> reducer) {
+        return SimulationLoops.<Step<O, A, S>, R>reduced(
+            (consumer, aborted) -> run(agent, dT, tRange, consumer, aborted),
+            reducer
+        );
+      }
+
+      private void run(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          ObjDoubleConsumer<Step<O, A, S>> consumer,
+          BooleanSupplier aborted
+      ) {
         DynamicalSystem<A, O, S> environment = environmentSupplier.get();
         environment.reset();
         if (resetAgent) {
           agent.reset();
         }
         double t = tRange.min();
-        Map<Double, Step<O, A, S>> steps = new HashMap<>();
         O observation = initialObservation;
-        while (t <= tRange.max() && !stopCondition.test(environment.getState())) {
+        while (t <= tRange.max() && !stopCondition.test(environment.getState()) && !aborted.getAsBoolean()) {
           A action = agent.step(t, observation);
           observation = environment.step(t, action);
-          steps.put(t, new Step<>(observation, action, environment.getState()));
+          consumer.accept(new Step<>(observation, action, environment.getState()), t);
           t = t + dT;
         }
-        return Outcome.of(new TreeMap<>(steps));
       }
 
       @Override
@@ -25,10 +25,9 @@ import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
 import io.github.ericmedvet.jsdynsym.core.rl.NumericalReinforcementLearningAgent;
 import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent;
 import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent.RewardedInput;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjDoubleConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleBiFunction;
@@ -49,6 +48,57 @@ public interface SingleRLAgentTask<C extends ReinforcementLearningAgent<O, A, ?>
           C agent,
           double dT,
           DoubleRange tRange
+      ) {
+        ColumnarOutcome<RewardedInput<O>, A, S, Step<RewardedInput<O>, A, S>> outcome = ColumnarOutcome.ofSteps();
+        run(
+            agent,
+            dT,
+            tRange,
+            (step, t) -> outcome.add(t, step.observation(), step.action(), step.state()),
+            () -> false
+        );
+        return outcome;
+      }
+
+      @Override
+      public BoundedOutcome<Step<RewardedInput<O>, A, S>> simulate(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          Bound<? super Step<RewardedInput<O>, A, S>> bound,
+          double threshold
+      ) {
+        ColumnarOutcome<RewardedInput<O>, A, S, Step<RewardedInput<O>, A, S>> outcome = ColumnarOutcome.ofSteps();
+        return SimulationLoops.bounded(
+            (consumer, aborted) -> run(agent, dT, tRange, consumer, aborted),
+            outcome,
+            (step, t) -> outcome.add(t, step.observation(), step.action(), step.state()),
+            bound,
+            dT,
+            tRange,
+            threshold
+        );
+      }
+
+      @Override
+      public <R> R simulate(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          Reducer<? super Step<RewardedInput<O>, A, S>, R> reducer
+      ) {
+        return SimulationLoops.<Step<RewardedInput<O>, A, S>, R>reduced(
+            (consumer, aborted) -> run(agent, dT, tRange, consumer, aborted),
+            reducer
+        );
+      }
+
+      private void run(
+          C agent,
+          double dT,
+          DoubleRange tRange,
+          ObjDoubleConsumer<Step<RewardedInput<O>, A, S>> consumer,
+          BooleanSupplier aborted
       ) {
         DynamicalSystem<A, O, S> environment = environmentSupplier.get();
         environment.reset();
@@ -56,20 +106,15 @@ public interface SingleRLAgentTask<C extends ReinforcementLearningAgent<O, A, ?>
           agent.reset();
         }
         double t = tRange.min();
-        Map<Double, Step<RewardedInput<O>, A, S>> steps = new HashMap<>();
         O observation = initialObservation;
         double reward = Double.NaN;
-        while (t <= tRange.max() && !stopCondition.test(environment.getState())) {
+        while (t <= tRange.max() && !stopCondition.test(environment.getState()) && !aborted.getAsBoolean()) {
           A action = agent.step(t, observation, reward);
           observation = environment.step(t, action);
           reward = rewardFunction.applyAsDouble(environment.getState(), action);
-          steps.put(
-              t,
-              new Step<>(new RewardedInput<>(observation, reward), action, environment.getState())
-          );
+          consumer.accept(new Step<>(new RewardedInput<>(observation, reward), action, environment.getState()), t);
           t = t + dT;
         }
-        return Outcome.of(new TreeMap<>(steps));
       }
 
       @Override
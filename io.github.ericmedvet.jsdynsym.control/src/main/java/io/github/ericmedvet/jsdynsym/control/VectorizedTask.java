@@ -0,0 +1,325 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask.Step;
+import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
+import io.github.ericmedvet.jsdynsym.core.rl.ReinforcementLearningAgent.RewardedInput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Runs many episodes of the same numerical task on a fixed number of environments stepped in lockstep by a
+ * {@link BatchAgent}. Each environment has its own time: when an episode on it is over, i.e., when its time exceeds the
+ * time range or its state meets the stop condition, the environment (and the corresponding agent row) is reset and a
+ * new episode is started on it, until the requested number of episodes has been started. If an executor is given,
+ * environments are stepped on it, in as many chunks as environments divided by the chunk size; results do not depend
+ * on the executor.
+ */
+public class VectorizedTask<S> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 4;
+
+  private final Supplier<? extends DynamicalSystem<double[], double[], S>> environmentSupplier;
+  private final double[] initialObservation;
+  private final Predicate<S> stopCondition;
+  private final ToDoubleBiFunction<S, double[]> rewardFunction;
+  private final int nOfEnvironments;
+  private final ExecutorService executorService;
+  private final int chunkSize;
+
+  public VectorizedTask(
+      Supplier<? extends DynamicalSystem<double[], double[], S>> environmentSupplier,
+      double[] initialObservation,
+      Predicate<S> stopCondition,
+      ToDoubleBiFunction<S, double[]> rewardFunction,
+      int nOfEnvironments,
+      ExecutorService executorService,
+      int chunkSize
+  ) {
+    if (nOfEnvironments < 1) {
+      throw new IllegalArgumentException(
+          "Number of environments must be positive: %d found".formatted(nOfEnvironments)
+      );
+    }
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive: %d found".formatted(chunkSize));
+    }
+    this.environmentSupplier = environmentSupplier;
+    this.initialObservation = initialObservation;
+    this.stopCondition = stopCondition;
+    this.rewardFunction = rewardFunction;
+    this.nOfEnvironments = nOfEnvironments;
+    this.executorService = executorService;
+    this.chunkSize = chunkSize;
+  }
+
+  public record EpisodeSummary<S>(
+      int environmentIndex,
+      int episodeIndex,
+      int nOfSteps,
+      double cumulatedReward,
+      S finalState
+  ) {}
+
+  public static <S> VectorizedTask<S> fromEnvironment(
+      Supplier<? extends DynamicalSystem<double[], double[], S>> environmentSupplier,
+      double[] initialObservation,
+      Predicate<S> stopCondition,
+      ToDoubleBiFunction<S, double[]> rewardFunction,
+      int nOfEnvironments,
+      ExecutorService executorService
+  ) {
+    return new VectorizedTask<>(
+        environmentSupplier,
+        initialObservation,
+        stopCondition,
+        rewardFunction,
+        nOfEnvironments,
+        executorService,
+        DEFAULT_CHUNK_SIZE
+    );
+  }
+
+  public static <S> VectorizedTask<S> fromEnvironment(
+      Supplier<? extends DynamicalSystem<double[], double[], S>> environmentSupplier,
+      double[] initialObservation,
+      Predicate<S> stopCondition,
+      int nOfEnvironments,
+      ExecutorService executorService
+  ) {
+    return fromEnvironment(
+        environmentSupplier,
+        initialObservation,
+        stopCondition,
+        (s, a) -> Double.NaN,
+        nOfEnvironments,
+        executorService
+    );
+  }
+
+  public static <S> VectorizedTask<S> fromNumericalEnvironment(
+      Supplier<? extends Environment<double[], double[], S, NumericalDynamicalSystem<?>>> environmentSupplier,
+      Predicate<S> stopCondition,
+      ToDoubleBiFunction<S, double[]> rewardFunction,
+      int nOfEnvironments,
+      ExecutorService executorService
+  ) {
+    return fromEnvironment(
+        environmentSupplier,
+        environmentSupplier.get().defaultObservation(),
+        stopCondition,
+        rewardFunction,
+        nOfEnvironments,
+        executorService
+    );
+  }
+
+  private final class Slot {
+    private final int index;
+    private final DynamicalSystem<double[], double[], S> environment;
+    private int episodeIndex;
+    private double t;
+    private boolean running;
+    private int nOfSteps;
+    private double cumulatedReward;
+    private ColumnarOutcome<RewardedInput<double[]>, double[], S, Step<RewardedInput<double[]>, double[], S>> outcome;
+
+    private Slot(int index) {
+      this.index = index;
+      environment = environmentSupplier.get();
+    }
+
+    private void step(
+        double dT,
+        int nOfOutputs,
+        double[] observations,
+        double[] rewards,
+        double[] actions,
+        boolean record
+    ) {
+      if (!running) {
+        return;
+      }
+      double[] action = Arrays.copyOfRange(actions, index * nOfOutputs, (index + 1) * nOfOutputs);
+      double[] observation = environment.step(t, action);
+      S state = environment.getState();
+      double reward = rewardFunction.applyAsDouble(state, action);
+      System.arraycopy(observation, 0, observations, index * initialObservation.length, initialObservation.length);
+      rewards[index] = reward;
+      if (record) {
+        outcome.add(t, new RewardedInput<>(observation, reward), action, state);
+      }
+      nOfSteps = nOfSteps + 1;
+      if (!Double.isNaN(reward)) {
+        cumulatedReward = cumulatedReward + reward;
+      }
+      t = t + dT;
+    }
+  }
+
+  public int nOfEnvironments() {
+    return nOfEnvironments;
+  }
+
+  /**
+   * Runs {@code nOfEpisodes} episodes and returns their outcomes, in the order in which episodes were started.
+   */
+  public List<Simulation.Outcome<Step<RewardedInput<double[]>, double[], S>>> simulate(
+      BatchAgent agent,
+      double dT,
+      DoubleRange tRange,
+      int nOfEpisodes
+  ) {
+    List<Simulation.Outcome<Step<RewardedInput<double[]>, double[], S>>> outcomes = new ArrayList<>(
+        nOfEpisodes
+    );
+    for (int i = 0; i < nOfEpisodes; i = i + 1) {
+      outcomes.add(null);
+    }
+    run(agent, dT, tRange, nOfEpisodes, true, (slot, summary) -> outcomes.set(
+        summary.episodeIndex(),
+        slot.outcome
+    ));
+    return outcomes;
+  }
+
+  /**
+   * Runs {@code nOfEpisodes} episodes without storing their steps, and notifies the listener with a summary at the end
+   * of each episode.
+   */
+  public void run(
+      BatchAgent agent,
+      double dT,
+      DoubleRange tRange,
+      int nOfEpisodes,
+      Consumer<? super EpisodeSummary<S>> listener
+  ) {
+    run(agent, dT, tRange, nOfEpisodes, false, (slot, summary) -> listener.accept(summary));
+  }
+
+  private interface EpisodeEndListener<S> {
+    void listen(VectorizedTask<S>.Slot slot, EpisodeSummary<S> summary);
+  }
+
+  private void run(
+      BatchAgent agent,
+      double dT,
+      DoubleRange tRange,
+      int nOfEpisodes,
+      boolean record,
+      EpisodeEndListener<S> listener
+  ) {
+    int nOfInputs = initialObservation.length;
+    int nOfOutputs = agent.nOfOutputs();
+    List<Slot> slots = new ArrayList<>(nOfEnvironments);
+    for (int k = 0; k < nOfEnvironments; k = k + 1) {
+      slots.add(new Slot(k));
+    }
+    double[] ts = new double[nOfEnvironments];
+    double[] observations = new double[nOfEnvironments * nOfInputs];
+    double[] rewards = new double[nOfEnvironments];
+    double[] actions = new double[nOfEnvironments * nOfOutputs];
+    int nOfStartedEpisodes = 0;
+    while (true) {
+      // close ended episodes and start new ones
+      int nOfRunning = 0;
+      for (Slot slot : slots) {
+        if (slot.running && (slot.t > tRange.max() || stopCondition.test(slot.environment.getState()))) {
+          slot.running = false;
+          listener.listen(
+              slot,
+              new EpisodeSummary<>(
+                  slot.index,
+                  slot.episodeIndex,
+                  slot.nOfSteps,
+                  slot.cumulatedReward,
+                  slot.environment.getState()
+              )
+          );
+        }
+        while (!slot.running && nOfStartedEpisodes < nOfEpisodes) {
+          slot.episodeIndex = nOfStartedEpisodes;
+          nOfStartedEpisodes = nOfStartedEpisodes + 1;
+          slot.environment.reset();
+          agent.reset(slot.index);
+          slot.t = tRange.min();
+          slot.nOfSteps = 0;
+          slot.cumulatedReward = 0;
+          slot.outcome = record ? ColumnarOutcome.ofSteps() : null;
+          System.arraycopy(initialObservation, 0, observations, slot.index * nOfInputs, nOfInputs);
+          rewards[slot.index] = Double.NaN;
+          if (slot.t <= tRange.max() && !stopCondition.test(slot.environment.getState())) {
+            slot.running = true;
+          } else {
+            listener.listen(
+                slot,
+                new EpisodeSummary<>(slot.index, slot.episodeIndex, 0, 0, slot.environment.getState())
+            );
+          }
+        }
+        if (slot.running) {
+          nOfRunning = nOfRunning + 1;
+        }
+        // rows of ended slots are marked with a NaN time, and their agents are not stepped
+        ts[slot.index] = slot.running ? slot.t : Double.NaN;
+      }
+      if (nOfRunning == 0) {
+        return;
+      }
+      // step
+      agent.step(ts, observations, rewards, actions);
+      if (executorService == null || nOfEnvironments <= chunkSize) {
+        for (Slot slot : slots) {
+          slot.step(dT, nOfOutputs, observations, rewards, actions, record);
+        }
+      } else {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < nOfEnvironments; from = from + chunkSize) {
+          List<Slot> chunk = slots.subList(from, Math.min(from + chunkSize, nOfEnvironments));
+          futures.add(executorService.submit(() -> chunk.forEach(
+              slot -> slot.step(dT, nOfOutputs, observations, rewards, actions, record)
+          )));
+        }
+        try {
+          for (Future<?> future : futures) {
+            future.get();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while stepping environments", e);
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Cannot step environment: %s".formatted(e.getCause()), e.getCause());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control.geometry;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+
+/**
+ * Primitive-argument versions of the geometric operations of {@link Point}, {@link Line}, {@link Semiline}, and
+ * {@link Segment}, for use in inner loops. They do not allocate and give exactly the same results as the corresponding
+ * methods of the records. Lines are given by their {@code a}, {@code b}, {@code c} coefficients as in {@link Line}.
+ */
+public class GeometryUtils {
+
+  private GeometryUtils() {
+  }
+
+  // as in Line.interception(Line)
+  private static boolean isParallel(double a1, double b1, double c1, double a2, double b2, double c2) {
+    if (Double.compare(a1, a2) == 0 && Double.compare(b1, b2) == 0 && Double.compare(c1, c2) == 0) {
+      return true;
+    }
+    return a1 / a2 == b1 / b2;
+  }
+
+  public static double lineA(double x1, double y1, double x2, double y2) {
+    if (x1 == x2) {
+      return 1d;
+    }
+    if (y1 == y2) {
+      return 0d;
+    }
+    return 1d / (x2 - x1);
+  }
+
+  public static double lineB(double x1, double y1, double x2, double y2) {
+    if (x1 == x2) {
+      return 0d;
+    }
+    if (y1 == y2) {
+      return 1d;
+    }
+    return -1d / (y2 - y1);
+  }
+
+  public static double lineC(double x1, double y1, double x2, double y2) {
+    if (x1 == x2) {
+      return -x1;
+    }
+    if (y1 == y2) {
+      return -y1;
+    }
+    return -x1 / (x2 - x1) + y1 / (y2 - y1);
+  }
+
+  /**
+   * Returns the distance of the point from the segment, as {@link Point#distance(Segment)}. The segment is given by its
+   * endpoints, the coefficients of its line, and the unit vector orthogonal to its direction, i.e.,
+   * {@code new Point(s.direction() + Math.PI / 2d)}.
+   */
+  public static double pointSegmentDistance(
+      double px,
+      double py,
+      double x1,
+      double y1,
+      double x2,
+      double y2,
+      double sA,
+      double sB,
+      double sC,
+      double nx,
+      double ny
+  ) {
+    double qx = px + nx;
+    double qy = py + ny;
+    double a = lineA(px, py, qx, qy);
+    double b = lineB(px, py, qx, qy);
+    double c = lineC(px, py, qx, qy);
+    double footD = Double.POSITIVE_INFINITY;
+    if (!isParallel(a, b, c, sA, sB, sC)) {
+      double d = a * sB - sA * b;
+      double fx = (b * sC - sB * c) / d;
+      double fy = (c * sA - sC * a) / d;
+      if (!(fx < Math.min(x1, x2) || fx > Math.max(x1, x2) || fy < Math.min(y1, y2) || fy > Math.max(y1, y2))) {
+        footD = Math.sqrt((fx - px) * (fx - px) + (fy - py) * (fy - py));
+      }
+    }
+    double d1 = Math.sqrt((px - x1) * (px - x1) + (py - y1) * (py - y1));
+    double d2 = Math.sqrt((px - x2) * (px - x2) + (py - y2) * (py - y2));
+    return Math.min(Math.min(footD, d1), d2);
+  }
+
+  /**
+   * Returns the position, in [0,1], along the second segment of its intersection with the first one, or infinity if
+   * the two segments do not intersect. The two segments intersect, as {@link Segment#intersect(Segment)}, if and only if
+   * the returned value is finite.
+   */
+  public static double collisionT(
+      double x1,
+      double y1,
+      double x2,
+      double y2,
+      double ox1,
+      double oy1,
+      double ox2,
+      double oy2
+  ) {
+    double v1x = x2 - x1;
+    double v1y = y2 - y1;
+    double v2x = ox2 - ox1;
+    double v2y = oy2 - oy1;
+    if (Math.sqrt(v1x * v1x + v1y * v1y) == 0 || Math.sqrt(v2x * v2x + v2y * v2y) == 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double cramerDet = v1y * v2x - v1x * v2y;
+    double t1;
+    double t2;
+    if (cramerDet == 0) {
+      if (Math.abs(Math.atan2(oy2 - y1, ox2 - x1)) != Math.abs(Math.atan2(v1y, v1x))) {
+        return Double.POSITIVE_INFINITY;
+      }
+      if (v1x > 0 == ox2 > x2) {
+        t1 = (ox2 - x1) / v1x;
+        t2 = 1d;
+      } else {
+        t1 = 1d;
+        t2 = (x2 - ox1) / v2x;
+      }
+    } else {
+      double dx = ox1 - x1;
+      double dy = oy1 - y1;
+      t1 = (dy * v2x - dx * v2y) / cramerDet;
+      t2 = (dy * v1x - dx * v1y) / cramerDet;
+    }
+    if (DoubleRange.UNIT.contains(t1) && DoubleRange.UNIT.contains(t2)) {
+      return t2;
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns true if the two segments intersect, as {@link Segment#intersect(Segment)}.
+   */
+  public static boolean segmentsIntersect(
+      double x1,
+      double y1,
+      double x2,
+      double y2,
+      double ox1,
+      double oy1,
+      double ox2,
+      double oy2
+  ) {
+    return collisionT(x1, y1, x2, y2, ox1, oy1, ox2, oy2) < Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns the distance from its origin of the interception of the semiline with the segment, or infinity if there is
+   * no interception, as {@link Semiline#interception(Segment)}. The semiline is given by its origin, its direction, and
+   * the coefficients of its line; the segment by its bounding box and the coefficients of its line.
+   */
+  public static double semilineSegmentDistance(
+      double px,
+      double py,
+      double a,
+      double lA,
+      double lB,
+      double lC,
+      double minX,
+      double minY,
+      double maxX,
+      double maxY,
+      double sA,
+      double sB,
+      double sC
+  ) {
+    if (isParallel(lA, lB, lC, sA, sB, sC)) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double d = lA * sB - sA * lB;
+    double ix = (lB * sC - sB * lC) / d;
+    double iy = (lC * sA - sC * lA) / d;
+    if (ix < minX || ix > maxX || iy < minY || iy > maxY) {
+      return Double.POSITIVE_INFINITY;
+    }
+    if (Math.abs((Math.atan2(iy - py, ix - px) - a) % (2 * Math.PI)) > Math.PI / 2d) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return Math.sqrt((ix - px) * (ix - px) + (iy - py) * (iy - py));
+  }
+}
@@ -0,0 +1,382 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control.geometry;
+
+import java.util.List;
+
+/**
+ * An immutable uniform grid over a list of segments, for answering proximity, intersection, and ray-casting queries by
+ * looking only at the segments close to the query. Each segment is stored in all the cells overlapped by its bounding
+ * box. Segments are compiled in flat columns of endpoints, bounding boxes, line coefficients, and normal vectors, which
+ * are used by the primitive kernels of {@link GeometryUtils}: queries do not allocate. Being immutable, an index can be
+ * shared across threads.
+ */
+public final class SegmentIndex {
+
+  private final List<Segment> segments;
+  private final double[] x1s;
+  private final double[] y1s;
+  private final double[] x2s;
+  private final double[] y2s;
+  private final double[] boxMinXs;
+  private final double[] boxMinYs;
+  private final double[] boxMaxXs;
+  private final double[] boxMaxYs;
+  private final double[] lineAs;
+  private final double[] lineBs;
+  private final double[] lineCs;
+  private final double[] normalXs;
+  private final double[] normalYs;
+  private final double minX;
+  private final double minY;
+  private final double cellW;
+  private final double cellH;
+  private final double margin;
+  private final int nX;
+  private final int nY;
+  private final int[] cellStarts;
+  private final int[] cellSegments;
+
+  public SegmentIndex(List<Segment> segments, int nX, int nY) {
+    if (nX < 1 || nY < 1) {
+      throw new IllegalArgumentException("Invalid grid size: %dx%d".formatted(nX, nY));
+    }
+    this.segments = List.copyOf(segments);
+    this.nX = nX;
+    this.nY = nY;
+    int n = this.segments.size();
+    x1s = new double[n];
+    y1s = new double[n];
+    x2s = new double[n];
+    y2s = new double[n];
+    boxMinXs = new double[n];
+    boxMinYs = new double[n];
+    boxMaxXs = new double[n];
+    boxMaxYs = new double[n];
+    lineAs = new double[n];
+    lineBs = new double[n];
+    lineCs = new double[n];
+    normalXs = new double[n];
+    normalYs = new double[n];
+    for (int i = 0; i < n; i = i + 1) {
+      Segment s = this.segments.get(i);
+      x1s[i] = s.p1().x();
+      y1s[i] = s.p1().y();
+      x2s[i] = s.p2().x();
+      y2s[i] = s.p2().y();
+      boxMinXs[i] = Math.min(x1s[i], x2s[i]);
+      boxMinYs[i] = Math.min(y1s[i], y2s[i]);
+      boxMaxXs[i] = Math.max(x1s[i], x2s[i]);
+      boxMaxYs[i] = Math.max(y1s[i], y2s[i]);
+      lineAs[i] = GeometryUtils.lineA(x1s[i], y1s[i], x2s[i], y2s[i]);
+      lineBs[i] = GeometryUtils.lineB(x1s[i], y1s[i], x2s[i], y2s[i]);
+      lineCs[i] = GeometryUtils.lineC(x1s[i], y1s[i], x2s[i], y2s[i]);
+      Point normal = new Point(s.direction() + Math.PI / 2d);
+      normalXs[i] = normal.x();
+      normalYs[i] = normal.y();
+    }
+    double minX = 0;
+    double minY = 0;
+    double maxX = 1;
+    double maxY = 1;
+    if (n > 0) {
+      minX = Double.POSITIVE_INFINITY;
+      minY = Double.POSITIVE_INFINITY;
+      maxX = Double.NEGATIVE_INFINITY;
+      maxY = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < n; i = i + 1) {
+        minX = Math.min(minX, boxMinXs[i]);
+        minY = Math.min(minY, boxMinYs[i]);
+        maxX = Math.max(maxX, boxMaxXs[i]);
+        maxY = Math.max(maxY, boxMaxYs[i]);
+      }
+    }
+    this.minX = minX;
+    this.minY = minY;
+    cellW = (maxX > minX ? (maxX - minX) : 1d) / nX;
+    cellH = (maxY > minY ? (maxY - minY) : 1d) / nY;
+    // segments touching a cell border are put in both cells, to be robust to rounding
+    margin = 1e-9 * (cellW * nX + cellH * nY);
+    // count, then fill the segments of each cell
+    cellStarts = new int[nX * nY + 1];
+    for (int i = 0; i < n; i = i + 1) {
+      for (int iy = cellY(boxMinYs[i] - margin); iy <= cellY(boxMaxYs[i] + margin); iy = iy + 1) {
+        for (int ix = cellX(boxMinXs[i] - margin); ix <= cellX(boxMaxXs[i] + margin); ix = ix + 1) {
+          cellStarts[iy * nX + ix + 1] = cellStarts[iy * nX + ix + 1] + 1;
+        }
+      }
+    }
+    for (int c = 0; c < nX * nY; c = c + 1) {
+      cellStarts[c + 1] = cellStarts[c + 1] + cellStarts[c];
+    }
+    cellSegments = new int[cellStarts[nX * nY]];
+    int[] filled = new int[nX * nY];
+    for (int i = 0; i < n; i = i + 1) {
+      for (int iy = cellY(boxMinYs[i] - margin); iy <= cellY(boxMaxYs[i] + margin); iy = iy + 1) {
+        for (int ix = cellX(boxMinXs[i] - margin); ix <= cellX(boxMaxXs[i] + margin); ix = ix + 1) {
+          int c = iy * nX + ix;
+          cellSegments[cellStarts[c] + filled[c]] = i;
+          filled[c] = filled[c] + 1;
+        }
+      }
+    }
+  }
+
+  public SegmentIndex(List<Segment> segments) {
+    this(segments, side(segments, true), side(segments, false));
+  }
+
+  @FunctionalInterface
+  public interface SegmentFunction {
+    double apply(double x1, double y1, double x2, double y2);
+  }
+
+  // about sqrt(n) cells per side, proportionally to the extents
+  private static int side(List<Segment> segments, boolean x) {
+    double w = segments.stream().mapToDouble(s -> Math.max(s.p1().x(), s.p2().x())).max().orElse(1) - segments
+        .stream()
+        .mapToDouble(s -> Math.min(s.p1().x(), s.p2().x()))
+        .min()
+        .orElse(0);
+    double h = segments.stream().mapToDouble(s -> Math.max(s.p1().y(), s.p2().y())).max().orElse(1) - segments
+        .stream()
+        .mapToDouble(s -> Math.min(s.p1().y(), s.p2().y()))
+        .min()
+        .orElse(0);
+    if (w <= 0 || h <= 0) {
+      return 1;
+    }
+    double k = Math.ceil(Math.sqrt(segments.size()));
+    return (int) Math.max(1, Math.ceil(k * Math.sqrt(x ? (w / h) : (h / w))));
+  }
+
+  private int cellX(double x) {
+    return Math.max(0, Math.min(nX - 1, (int) Math.floor((x - minX) / cellW)));
+  }
+
+  private int cellY(double y) {
+    return Math.max(0, Math.min(nY - 1, (int) Math.floor((y - minY) / cellH)));
+  }
+
+  public double distance(Semiline semiline, double maxDistance) {
+    return distance(semiline.p().x(), semiline.p().y(), semiline.a(), maxDistance);
+  }
+
+  /**
+   * Returns the distance from the origin of the semiline to the closest interception with a segment, if closer than
+   * {@code maxDistance}, or infinity, if there are no interceptions at all. Otherwise, returns a value greater than
+   * {@code maxDistance}. The cells are visited along the semiline, stopping as soon as no further cell can contain a
+   * closer interception.
+   */
+  public double distance(double px, double py, double a, double maxDistance) {
+    double dx = Math.cos(a);
+    double dy = Math.sin(a);
+    double qx = px + dx;
+    double qy = py + dy;
+    double lA = GeometryUtils.lineA(px, py, qx, qy);
+    double lB = GeometryUtils.lineB(px, py, qx, qy);
+    double lC = GeometryUtils.lineC(px, py, qx, qy);
+    // on the border, a semiline running along it would leave the grid at once: outside or there, check all the cells
+    boolean onBorderOrOutside = px <= minX + margin || px >= minX + nX * cellW - margin || py <= minY + margin
+        || py >= minY + nY * cellH - margin;
+    if (onBorderOrOutside) {
+      return distance(px, py, a, lA, lB, lC, 0, 0, nX - 1, nY - 1);
+    }
+    int ix = cellX(px);
+    int iy = cellY(py);
+    int stepX = dx > 0 ? 1 : -1;
+    int stepY = dy > 0 ? 1 : -1;
+    double tMaxX = dx == 0 ? Double.POSITIVE_INFINITY : ((minX + (ix + (dx > 0 ? 1 : 0)) * cellW - px) / dx);
+    double tMaxY = dy == 0 ? Double.POSITIVE_INFINITY : ((minY + (iy + (dy > 0 ? 1 : 0)) * cellH - py) / dy);
+    double tDeltaX = dx == 0 ? Double.POSITIVE_INFINITY : (cellW / Math.abs(dx));
+    double tDeltaY = dy == 0 ? Double.POSITIVE_INFINITY : (cellH / Math.abs(dy));
+    double best = Double.POSITIVE_INFINITY;
+    while (ix >= 0 && ix < nX && iy >= 0 && iy < nY) {
+      best = Math.min(best, distance(px, py, a, lA, lB, lC, ix, iy, ix, iy));
+      double tExit = Math.min(tMaxX, tMaxY);
+      if (best < tExit - margin || (best < Double.POSITIVE_INFINITY && tExit - margin > maxDistance)) {
+        break;
+      }
+      if (tMaxX < tMaxY) {
+        ix = ix + stepX;
+        tMaxX = tMaxX + tDeltaX;
+      } else {
+        iy = iy + stepY;
+        tMaxY = tMaxY + tDeltaY;
+      }
+    }
+    return best;
+  }
+
+  private double distance(
+      double px,
+      double py,
+      double a,
+      double lA,
+      double lB,
+      double lC,
+      int ix0,
+      int iy0,
+      int ix1,
+      int iy1
+  ) {
+    double min = Double.POSITIVE_INFINITY;
+    for (int iy = iy0; iy <= iy1; iy = iy + 1) {
+      for (int ix = ix0; ix <= ix1; ix = ix + 1) {
+        int c = iy * nX + ix;
+        for (int k = cellStarts[c]; k < cellStarts[c + 1]; k = k + 1) {
+          int i = cellSegments[k];
+          min = Math.min(
+              min,
+              GeometryUtils.semilineSegmentDistance(
+                  px,
+                  py,
+                  a,
+                  lA,
+                  lB,
+                  lC,
+                  boxMinXs[i],
+                  boxMinYs[i],
+                  boxMaxXs[i],
+                  boxMaxYs[i],
+                  lineAs[i],
+                  lineBs[i],
+                  lineCs[i]
+              )
+          );
+        }
+      }
+    }
+    return min;
+  }
+
+  public boolean intersects(Segment segment) {
+    return intersects(segment.p1().x(), segment.p1().y(), segment.p2().x(), segment.p2().y());
+  }
+
+  public boolean intersects(double x1, double y1, double x2, double y2) {
+    int ix0 = cellX(Math.min(x1, x2) - margin);
+    int ix1 = cellX(Math.max(x1, x2) + margin);
+    int iy0 = cellY(Math.min(y1, y2) - margin);
+    int iy1 = cellY(Math.max(y1, y2) + margin);
+    for (int iy = iy0; iy <= iy1; iy = iy + 1) {
+      for (int ix = ix0; ix <= ix1; ix = ix + 1) {
+        int c = iy * nX + ix;
+        for (int k = cellStarts[c]; k < cellStarts[c + 1]; k = k + 1) {
+          int i = cellSegments[k];
+          if (GeometryUtils.segmentsIntersect(x1s[i], y1s[i], x2s[i], y2s[i], x1, y1, x2, y2)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the smallest position, in [0,1], along the segment (x1,y1)-(x2,y2) of its intersections with the segments,
+   * or infinity if there are none, as {@link GeometryUtils#collisionT}.
+   */
+  public double minCollisionT(double x1, double y1, double x2, double y2) {
+    int ix0 = cellX(Math.min(x1, x2) - margin);
+    int ix1 = cellX(Math.max(x1, x2) + margin);
+    int iy0 = cellY(Math.min(y1, y2) - margin);
+    int iy1 = cellY(Math.max(y1, y2) + margin);
+    double min = Double.POSITIVE_INFINITY;
+    for (int iy = iy0; iy <= iy1; iy = iy + 1) {
+      for (int ix = ix0; ix <= ix1; ix = ix + 1) {
+        int c = iy * nX + ix;
+        for (int k = cellStarts[c]; k < cellStarts[c + 1]; k = k + 1) {
+          int i = cellSegments[k];
+          min = Math.min(min, GeometryUtils.collisionT(x1s[i], y1s[i], x2s[i], y2s[i], x1, y1, x2, y2));
+        }
+      }
+    }
+    return min;
+  }
+
+  /**
+   * Returns the minimum of the function over the segments whose bounding box overlaps the given box, or infinity if
+   * there are none. Segments overlapping many cells may be evaluated more than once.
+   */
+  public double min(double minX, double minY, double maxX, double maxY, SegmentFunction f) {
+    int ix0 = cellX(minX - margin);
+    int ix1 = cellX(maxX + margin);
+    int iy0 = cellY(minY - margin);
+    int iy1 = cellY(maxY + margin);
+    double min = Double.POSITIVE_INFINITY;
+    for (int iy = iy0; iy <= iy1; iy = iy + 1) {
+      for (int ix = ix0; ix <= ix1; ix = ix + 1) {
+        int c = iy * nX + ix;
+        for (int k = cellStarts[c]; k < cellStarts[c + 1]; k = k + 1) {
+          int i = cellSegments[k];
+          min = Math.min(min, f.apply(x1s[i], y1s[i], x2s[i], y2s[i]));
+        }
+      }
+    }
+    return min;
+  }
+
+  public double minDistance(Point p, double maxDistance) {
+    return minDistance(p.x(), p.y(), maxDistance);
+  }
+
+  /**
+   * Returns the distance from the point to the closest segment, if closer than {@code maxDistance}. Otherwise, returns
+   * a value greater than {@code maxDistance}, possibly infinity.
+   */
+  public double minDistance(double px, double py, double maxDistance) {
+    int ix0 = cellX(px - maxDistance - margin);
+    int ix1 = cellX(px + maxDistance + margin);
+    int iy0 = cellY(py - maxDistance - margin);
+    int iy1 = cellY(py + maxDistance + margin);
+    double min = Double.POSITIVE_INFINITY;
+    for (int iy = iy0; iy <= iy1; iy = iy + 1) {
+      for (int ix = ix0; ix <= ix1; ix = ix + 1) {
+        int c = iy * nX + ix;
+        for (int k = cellStarts[c]; k < cellStarts[c + 1]; k = k + 1) {
+          int i = cellSegments[k];
+          min = Math.min(
+              min,
+              GeometryUtils.pointSegmentDistance(
+                  px,
+                  py,
+                  x1s[i],
+                  y1s[i],
+                  x2s[i],
+                  y2s[i],
+                  lineAs[i],
+                  lineBs[i],
+                  lineCs[i],
+                  normalXs[i],
+                  normalYs[i]
+              )
+          );
+        }
+      }
+    }
+    return min;
+  }
+
+  public List<Segment> segments() {
+    return segments;
+  }
+}
@@ -25,6 +25,7 @@ import io.github.ericmedvet.jnb.datastructure.Grid.Key;
 import io.github.ericmedvet.jnb.datastructure.TriFunction;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
 import io.github.ericmedvet.jsdynsym.control.geometry.Segment;
+import io.github.ericmedvet.jsdynsym.control.geometry.SegmentIndex;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -242,6 +243,14 @@ public interface Arena {
     );
   }
 
+  /**
+   * Returns a spatial index over the {@link #segments()} of this arena. The index is built once and shared among
+   * arenas which are equal.
+   */
+  default SegmentIndex segmentIndex() {
+    return SegmentIndexes.get(this);
+  }
+
   default List<Segment> segments() {
     return Stream.concat(boundaries().stream(), obstacles().stream()).toList();
   }
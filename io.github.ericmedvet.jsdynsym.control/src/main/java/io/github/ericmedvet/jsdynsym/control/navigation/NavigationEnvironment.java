@@ -22,14 +22,11 @@ package io.github.ericmedvet.jsdynsym.control.navigation;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.control.Environment;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
-import io.github.ericmedvet.jsdynsym.control.geometry.Segment;
-import io.github.ericmedvet.jsdynsym.control.geometry.Semiline;
+import io.github.ericmedvet.jsdynsym.control.geometry.SegmentIndex;
 import io.github.ericmedvet.jsdynsym.control.navigation.NavigationEnvironment.State;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.random.RandomGenerator;
 
 public class NavigationEnvironment implements NumericalDynamicalSystem<State>, Environment<double[], double[], State, NumericalDynamicalSystem<?>> {
@@ -62,10 +59,14 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
   }
 
   private final Configuration configuration;
+  private final SegmentIndex segmentIndex;
+  private final double[] sensorAngles;
   private State state;
 
   public NavigationEnvironment(Configuration configuration) {
     this.configuration = configuration;
+    segmentIndex = configuration.arena.segmentIndex();
+    sensorAngles = configuration.sensorAngles.stream().mapToDouble(Double::doubleValue).toArray();
     reset();
   }
 
@@ -112,6 +113,11 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
 
   @Override
   public double[] step(double t, double[] action) {
+    return step(t, action, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] action, double[] observation) {
     // check consistency
     if (action.length != nOfInputs()) {
       throw new IllegalArgumentException(
@@ -120,7 +126,6 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
       );
     }
     // prepare
-    List<Segment> segments = configuration.arena.segments();
     DoubleRange sensorsRange = new DoubleRange(
         configuration.robotRadius,
         configuration.sensorRange
@@ -140,14 +145,19 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
         ((v2 - v1) / 2d % configuration.robotRadius) / configuration.robotRadius
     );
     // check collision and update pose
-    double minD = segments.stream()
-        .mapToDouble(newRobotP::distance)
-        .min()
-        .orElseThrow();
+    double minD = segmentIndex.minDistance(
+        newRobotP.x(),
+        newRobotP.y(),
+        Math.max(configuration.robotRadius, 5d * maxV)
+    );
     boolean collision = minD <= configuration.robotRadius;
     if (!collision && minD < 5d * maxV) { // the comparison with minD is an optimization
-      Segment robotPath = new Segment(state.robotPosition, newRobotP);
-      collision = segments.stream().anyMatch(os -> os.intersect(robotPath));
+      collision = segmentIndex.intersects(
+          state.robotPosition.x(),
+          state.robotPosition.y(),
+          newRobotP.x(),
+          newRobotP.y()
+      );
     }
     state = new State(
         t,
@@ -159,31 +169,26 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
         collision
     );
     // compute observation
-    double[] sInputs = configuration.sensorAngles.stream()
-        .mapToDouble(a -> {
-          Semiline sl = new Semiline(state.robotPosition, a + state.robotDirection);
-          return segments.stream()
-              .map(sl::interception)
-              .filter(Optional::isPresent)
-              .mapToDouble(
-                  op -> sensorsRange.normalize(op.orElseThrow().distance(state.robotPosition))
-              )
-              .min()
-              .orElse(Double.POSITIVE_INFINITY);
-        })
-        .toArray();
-    double[] observation = configuration.senseTarget ? new double[configuration.sensorAngles.size() + 2] : sInputs;
+    int offset = configuration.senseTarget ? 2 : 0;
+    for (int i = 0; i < sensorAngles.length; i = i + 1) {
+      double d = segmentIndex.distance(
+          state.robotPosition.x(),
+          state.robotPosition.y(),
+          sensorAngles[i] + state.robotDirection,
+          configuration.sensorRange
+      );
+      observation[offset + i] = Double.isInfinite(d) ? d : sensorsRange.normalize(d);
+    }
     if (configuration.senseTarget) {
-      System.arraycopy(sInputs, 0, observation, 2, sInputs.length);
       double d = state.robotPosition.distance(state.targetPosition);
       double a = (state.targetPosition.diff(state.robotPosition).direction() - state.robotDirection) % (2d * Math.PI);
       observation[0] = sensorsRange.normalize(d);
       observation[1] = new DoubleRange(-2d * Math.PI, 2d * Math.PI).normalize(a);
     }
     if (configuration.rescaleInput) {
-      observation = Arrays.stream(observation)
-          .map(DoubleRange.SYMMETRIC_UNIT::denormalize)
-          .toArray();
+      for (int i = 0; i < offset + sensorAngles.length; i = i + 1) {
+        observation[i] = DoubleRange.SYMMETRIC_UNIT.denormalize(observation[i]);
+      }
     }
     return observation;
   }
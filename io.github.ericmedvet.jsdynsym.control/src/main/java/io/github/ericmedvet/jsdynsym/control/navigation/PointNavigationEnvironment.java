@@ -22,11 +22,10 @@ package io.github.ericmedvet.jsdynsym.control.navigation;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.control.Environment;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
-import io.github.ericmedvet.jsdynsym.control.geometry.Segment;
+import io.github.ericmedvet.jsdynsym.control.geometry.SegmentIndex;
 import io.github.ericmedvet.jsdynsym.control.navigation.PointNavigationEnvironment.State;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
-import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class PointNavigationEnvironment implements NumericalDynamicalSystem<State>, Environment<double[], double[], State, NumericalDynamicalSystem<?>> {
@@ -52,10 +51,16 @@ public class PointNavigationEnvironment implements NumericalDynamicalSystem<Stat
   }
 
   private final Configuration configuration;
+  private final SegmentIndex segmentIndex;
+  private final DoubleRange xRange;
+  private final DoubleRange yRange;
   private State state;
 
   public PointNavigationEnvironment(Configuration configuration) {
     this.configuration = configuration;
+    segmentIndex = configuration.arena.segmentIndex();
+    xRange = new DoubleRange(0, configuration.arena.xExtent());
+    yRange = new DoubleRange(0, configuration.arena.yExtent());
     reset();
   }
 
@@ -96,6 +101,11 @@ public class PointNavigationEnvironment implements NumericalDynamicalSystem<Stat
 
   @Override
   public double[] step(double t, double[] action) {
+    return step(t, action, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] action, double[] observation) {
     // check consistency
     if (action.length != nOfInputs()) {
       throw new IllegalArgumentException(
@@ -103,76 +113,41 @@ public class PointNavigationEnvironment implements NumericalDynamicalSystem<Stat
               .formatted(action.length, nOfInputs())
       );
     }
-    // prepare
-    List<Segment> segments = configuration.arena.segments();
     // apply action
-    Point robotShift = new Point(
-        DoubleRange.SYMMETRIC_UNIT.clip(action[0]) * configuration.robotMaxV,
-        DoubleRange.SYMMETRIC_UNIT.clip(action[1]) * configuration.robotMaxV
-    );
+    double px = state.robotPosition.x();
+    double py = state.robotPosition.y();
+    double shiftX = DoubleRange.SYMMETRIC_UNIT.clip(action[0]) * configuration.robotMaxV;
+    double shiftY = DoubleRange.SYMMETRIC_UNIT.clip(action[1]) * configuration.robotMaxV;
     // compute new position
-    Point newRobotP = state.robotPosition.sum(
-        new Point(
-            DoubleRange.SYMMETRIC_UNIT.clip(action[0]) * configuration.robotMaxV,
-            DoubleRange.SYMMETRIC_UNIT.clip(action[1]) * configuration.robotMaxV
-        )
-    );
-    Segment robotPath = new Segment(state.robotPosition, newRobotP);
+    double newX = px + shiftX;
+    double newY = py + shiftY;
     // check collision and update position
-    double collisionT = segments.stream()
-        .map(s -> collide(s, robotPath))
-        .filter(p -> DoubleRange.UNIT.contains(p.x()) && DoubleRange.UNIT.contains(p.y()))
-        .mapToDouble(Point::y)
-        .min()
-        .orElse(1d);
+    double collisionT = Math.min(1d, segmentIndex.minCollisionT(px, py, newX, newY));
     if (collisionT < 1d) {
-      Point collisionPoint = state.robotPosition.sum(robotShift.scale(collisionT));
-      double collisionShiftT = collisionT - configuration.collisionBlock / collisionPoint.distance(state.robotPosition);
+      double dX = px + collisionT * shiftX - px;
+      double dY = py + collisionT * shiftY - py;
+      double collisionShiftT = collisionT - configuration.collisionBlock / Math.sqrt(dX * dX + dY * dY);
       if (collisionShiftT < 0) {
-        newRobotP = state.robotPosition;
+        newX = px;
+        newY = py;
       } else {
-        newRobotP = state.robotPosition.sum(robotShift.scale(collisionShiftT));
+        newX = px + collisionShiftT * shiftX;
+        newY = py + collisionShiftT * shiftY;
       }
     }
     state = new State(
         configuration,
         state.targetPosition,
-        newRobotP,
+        new Point(newX, newY),
         state.robotPosition,
         collisionT < 1d
     );
     // compute observation
-    double iX = new DoubleRange(0, configuration.arena.xExtent()).normalize(newRobotP.x());
-    double iY = new DoubleRange(0, configuration.arena.yExtent()).normalize(newRobotP.y());
-    return new double[]{configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(
-        iX
-    ) : iX, configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iY) : iY
-    };
-  }
-
-  private static Point collide(Segment s1, Segment s2) {
-    Point v1 = s1.p2().diff(s1.p1());
-    Point v2 = s2.p2().diff(s2.p1());
-    if (v1.magnitude() == 0 || v2.magnitude() == 0) {
-      return new Point(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
-    }
-    double cramerDet = v1.y() * v2.x() - v1.x() * v2.y();
-    if (cramerDet == 0) {
-      if (Math.abs(s2.p2().diff(s1.p1()).direction()) != Math.abs(
-          s1.p2().diff(s1.p1()).direction()
-      )) {
-        return new Point(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
-      }
-      if (v1.x() > 0 == s2.p2().x() > s1.p2().x()) {
-        return new Point((s2.p2().x() - s1.p1().x()) / v1.x(), 1d);
-      }
-      return new Point(1d, (s1.p2().x() - s2.p1().x()) / v2.x());
-    }
-    Point pointDiff = s2.p1().diff(s1.p1());
-    return new Point(
-        (pointDiff.y() * v2.x() - pointDiff.x() * v2.y()) / cramerDet,
-        (pointDiff.y() * v1.x() - pointDiff.x() * v1.y()) / cramerDet
-    );
+    double iX = xRange.normalize(newX);
+    double iY = yRange.normalize(newY);
+    observation[0] = configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iX) : iX;
+    observation[1] = configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iY) : iY;
+    return observation;
   }
 
   @Override
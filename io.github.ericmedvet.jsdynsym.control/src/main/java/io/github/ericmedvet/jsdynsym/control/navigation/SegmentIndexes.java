@@ -0,0 +1,39 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.control.navigation;
+
+import io.github.ericmedvet.jsdynsym.control.geometry.SegmentIndex;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+final class SegmentIndexes {
+
+  // arenas are compared by value, hence equal arenas share the same index
+  private static final Map<Arena, SegmentIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private SegmentIndexes() {
+  }
+
+  static SegmentIndex get(Arena arena) {
+    return INDEXES.computeIfAbsent(arena, a -> new SegmentIndex(a.segments()));
+  }
+}
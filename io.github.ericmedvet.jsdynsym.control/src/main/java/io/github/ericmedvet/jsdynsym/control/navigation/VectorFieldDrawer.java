@@ -20,6 +20,7 @@
 package io.github.ericmedvet.jsdynsym.control.navigation;
 
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalTimeInvariantStatelessSystem;
 import io.github.ericmedvet.jviz.core.drawer.Drawer;
 import io.github.ericmedvet.jviz.core.util.GraphicsUtils;
@@ -98,34 +99,44 @@ public class VectorFieldDrawer implements Drawer<NumericalTimeInvariantStateless
     int stepsOnY = (int) Math.floor(1d / configuration.step);
     double topLeftX = configuration.marginRate + (1d - configuration.step * (stepsOnX - 1)) / 2;
     double topLeftY = configuration.marginRate + (1d - configuration.step * (stepsOnY - 1)) / 2;
-    double max = 0d;
+    double[] inputs = new double[stepsOnX * stepsOnY * 2];
     for (int i = 0; i < stepsOnX; ++i) {
       for (int j = 0; j < stepsOnY; ++j) {
-        double[] input = new double[]{topLeftX + i * configuration.step, topLeftY + j * configuration.step};
+        int c = (i * stepsOnY + j) * 2;
+        inputs[c] = topLeftX + i * configuration.step;
+        inputs[c + 1] = topLeftY + j * configuration.step;
         if (configuration.rescale) {
-          input[0] = 2 * input[0] - 1;
-          input[1] = 2 * input[1] - 1;
+          inputs[c] = 2 * inputs[c] - 1;
+          inputs[c + 1] = 2 * inputs[c + 1] - 1;
         }
-        double[] output = dynSys.apply(input);
-        max = Math.max(max, Math.sqrt(output[0] * output[0] + output[1] * output[1]));
       }
     }
+    double[] outputs = computeAll(dynSys, inputs);
+    double max = 0d;
+    for (int c = 0; c < outputs.length; c = c + 2) {
+      max = Math.max(max, Math.sqrt(outputs[c] * outputs[c] + outputs[c + 1] * outputs[c + 1]));
+    }
     for (int i = 0; i < stepsOnX; ++i) {
       for (int j = 0; j < stepsOnY; ++j) {
-        double[] input = new double[]{topLeftX + i * configuration.step, topLeftY + j * configuration.step};
-        Point inputPoint = new Point(input[0], input[1]);
-        // rescale input
-        if (configuration.rescale) {
-          input[0] = 2 * input[0] - 1;
-          input[1] = 2 * input[1] - 1;
-        }
-        double[] output = dynSys.apply(input);
-        drawArrow(g, inputPoint, new Point(output[0] / max, output[1] / max));
+        int c = (i * stepsOnY + j) * 2;
+        Point inputPoint = new Point(topLeftX + i * configuration.step, topLeftY + j * configuration.step);
+        drawArrow(g, inputPoint, new Point(outputs[c] / max, outputs[c + 1] / max));
       }
     }
     g.setTransform(previousTransform);
   }
 
+  private static double[] computeAll(NumericalTimeInvariantStatelessSystem dynSys, double[] inputs) {
+    if (dynSys instanceof MultivariateRealFunction mrf) {
+      return mrf.computeBatch(inputs);
+    }
+    double[] outputs = new double[inputs.length];
+    for (int c = 0; c < inputs.length; c = c + 2) {
+      System.arraycopy(dynSys.apply(new double[]{inputs[c], inputs[c + 1]}), 0, outputs, c, 2);
+    }
+    return outputs;
+  }
+
   private AffineTransform setTransform(Graphics2D g, Arena arena) {
     double cX = g.getClipBounds().x;
     double cY = g.getClipBounds().y;
@@ -113,22 +113,35 @@ public class PongEnvironment implements HomogeneousBiEnvironment<double[], doubl
     }
   }
 
-  private Pair<double[], double[]> getNormalizedRacketObservations() {
+  private Pair<double[], double[]> getNormalizedRacketObservations(Pair<double[], double[]> observations) {
     BallState flippedBallState = flippedHorizontalAxisReferenceFrame(state.ballState);
-    return new Pair<>(
-        new double[]{state.lRacketState.yCenter / configuration.arenaYLength, state.ballState.position()
-            .x() / configuration.arenaXLength, state.ballState.position()
-                .y() / configuration.arenaYLength, state.ballState.velocity()
-                    .x() / configuration.ballMaxVelocity, state.ballState.velocity()
-                        .y() / configuration.ballMaxVelocity, state.rRacketState.yCenter / configuration.arenaYLength,
-        },
-        new double[]{state.rRacketState.yCenter / configuration.arenaYLength, flippedBallState.position()
-            .x() / configuration.arenaXLength, flippedBallState.position()
-                .y() / configuration.arenaYLength, flippedBallState.velocity()
-                    .x() / configuration.ballMaxVelocity, flippedBallState.velocity()
-                        .y() / configuration.ballMaxVelocity, state.lRacketState.yCenter / configuration.arenaYLength,
-        }
+    fillNormalizedRacketObservation(
+        observations.first(),
+        state.lRacketState,
+        state.ballState,
+        state.rRacketState
+    );
+    fillNormalizedRacketObservation(
+        observations.second(),
+        state.rRacketState,
+        flippedBallState,
+        state.lRacketState
     );
+    return observations;
+  }
+
+  private void fillNormalizedRacketObservation(
+      double[] observation,
+      RacketState racketState,
+      BallState ballState,
+      RacketState opponentRacketState
+  ) {
+    observation[0] = racketState.yCenter / configuration.arenaYLength;
+    observation[1] = ballState.position().x() / configuration.arenaXLength;
+    observation[2] = ballState.position().y() / configuration.arenaYLength;
+    observation[3] = ballState.velocity().x() / configuration.ballMaxVelocity;
+    observation[4] = ballState.velocity().y() / configuration.ballMaxVelocity;
+    observation[5] = opponentRacketState.yCenter / configuration.arenaYLength;
   }
 
   public int nOfInputsPerAgent() {
@@ -136,7 +149,7 @@ public class PongEnvironment implements HomogeneousBiEnvironment<double[], doubl
   }
 
   public int nOfObservationsPerAgent() {
-    return getNormalizedRacketObservations().first().length;
+    return 6;
   }
 
   @Override
@@ -185,6 +198,22 @@ public class PongEnvironment implements HomogeneousBiEnvironment<double[], doubl
 
   @Override
   public Pair<double[], double[]> step(double t, Pair<double[], double[]> normalizedActions) {
+    return step(
+        t,
+        normalizedActions,
+        new Pair<>(new double[nOfObservationsPerAgent()], new double[nOfObservationsPerAgent()])
+    );
+  }
+
+  /**
+   * Steps this environment and writes the observations of the two agents in the arrays of the provided
+   * {@code observations}, which is also returned.
+   */
+  public Pair<double[], double[]> step(
+      double t,
+      Pair<double[], double[]> normalizedActions,
+      Pair<double[], double[]> observations
+  ) {
     if (normalizedActions.first().length != nOfInputsPerAgent()) {
       throw new IllegalArgumentException(
           "Left agent action has wrong number of elements: %d found, %d expected"
@@ -324,7 +353,7 @@ public class PongEnvironment implements HomogeneousBiEnvironment<double[], doubl
       updateState(updatedBallState, updatedLRacketState, updatedRRacketState);
     }
     // return pair of observations
-    return getNormalizedRacketObservations();
+    return getNormalizedRacketObservations(observations);
   }
 
   private ArenaObject getClosestCollidingArenaObject(
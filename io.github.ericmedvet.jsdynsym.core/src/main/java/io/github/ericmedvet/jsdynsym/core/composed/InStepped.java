@@ -24,37 +24,38 @@ import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
 
 public class InStepped<I, O, S> extends AbstractComposed<DynamicalSystem<I, O, S>> implements DynamicalSystem<I, O, Stepped.State<S>> {
-  private final double interval;
-  private double lastT;
+  private final IntervalClock clock;
   private I lastInput;
 
   public InStepped(DynamicalSystem<I, O, S> inner, double interval) {
     super(inner);
-    this.interval = interval;
-    lastT = Double.NEGATIVE_INFINITY;
+    clock = new IntervalClock(interval);
   }
 
   @Override
   public Stepped.State<S> getState() {
-    return new Stepped.State<>(lastT, inner().getState());
+    return new Stepped.State<>(clock.lastT(), inner().getState());
   }
 
   @Override
   public void reset() {
-    lastT = Double.NEGATIVE_INFINITY;
+    clock.reset();
   }
 
   @Override
   public O step(double t, I input) {
-    if (t - lastT > interval) {
+    if (isNewInterval(t)) {
       lastInput = input;
-      lastT = t;
     }
     return inner().step(t, lastInput);
   }
 
+  protected boolean isNewInterval(double t) {
+    return clock.isNewInterval(t);
+  }
+
   @Override
   public String toString() {
-    return "iStepped[t=%.3f](%s)".formatted(interval, inner());
+    return "iStepped[t=%.3f](%s)".formatted(clock.interval(), inner());
   }
 }
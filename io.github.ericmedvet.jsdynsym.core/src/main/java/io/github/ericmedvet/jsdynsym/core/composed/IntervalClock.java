@@ -0,0 +1,53 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.composed;
+
+// the time of the last interval start of the stepped systems
+final class IntervalClock {
+  private final double interval;
+  private double lastT;
+
+  IntervalClock(double interval) {
+    this.interval = interval;
+    lastT = Double.NEGATIVE_INFINITY;
+  }
+
+  double interval() {
+    return interval;
+  }
+
+  // records t as the last time and returns true if more than interval has passed since the previous last time
+  boolean isNewInterval(double t) {
+    if (t - lastT > interval) {
+      lastT = t;
+      return true;
+    }
+    return false;
+  }
+
+  double lastT() {
+    return lastT;
+  }
+
+  void reset() {
+    lastT = Double.NEGATIVE_INFINITY;
+  }
+}
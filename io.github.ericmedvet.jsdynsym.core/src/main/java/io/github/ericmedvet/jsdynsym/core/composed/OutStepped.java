@@ -24,38 +24,39 @@ import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
 
 public class OutStepped<I, O, S> extends AbstractComposed<DynamicalSystem<I, O, S>> implements DynamicalSystem<I, O, Stepped.State<S>> {
-  private final double interval;
-  private double lastT;
+  private final IntervalClock clock;
   private O lastOutput;
 
   public OutStepped(DynamicalSystem<I, O, S> inner, double interval) {
     super(inner);
-    this.interval = interval;
-    lastT = Double.NEGATIVE_INFINITY;
+    clock = new IntervalClock(interval);
   }
 
   @Override
   public Stepped.State<S> getState() {
-    return new Stepped.State<>(lastT, inner().getState());
+    return new Stepped.State<>(clock.lastT(), inner().getState());
   }
 
   @Override
   public void reset() {
-    lastT = Double.NEGATIVE_INFINITY;
+    clock.reset();
   }
 
   @Override
   public O step(double t, I input) {
     O output = inner().step(t, input);
-    if (t - lastT > interval) {
+    if (isNewInterval(t)) {
       lastOutput = output;
-      lastT = t;
     }
     return lastOutput;
   }
 
+  protected boolean isNewInterval(double t) {
+    return clock.isNewInterval(t);
+  }
+
   @Override
   public String toString() {
-    return "oStepped[t=%.3f](%s)".formatted(interval, inner());
+    return "oStepped[t=%.3f](%s)".formatted(clock.interval(), inner());
   }
 }
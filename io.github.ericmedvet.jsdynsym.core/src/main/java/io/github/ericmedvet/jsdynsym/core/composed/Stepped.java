@@ -24,39 +24,40 @@ import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
 
 public class Stepped<I, O, S> extends AbstractComposed<DynamicalSystem<I, O, S>> implements DynamicalSystem<I, O, Stepped.State<S>> {
-  private final double interval;
-  private double lastT;
+  private final IntervalClock clock;
   private O lastOutput;
 
   public Stepped(DynamicalSystem<I, O, S> inner, double interval) {
     super(inner);
-    this.interval = interval;
-    lastT = Double.NEGATIVE_INFINITY;
+    clock = new IntervalClock(interval);
   }
 
   public record State<S>(double lastT, S state) {}
 
   @Override
   public State<S> getState() {
-    return new State<>(lastT, inner().getState());
+    return new State<>(clock.lastT(), inner().getState());
   }
 
   @Override
   public void reset() {
-    lastT = Double.NEGATIVE_INFINITY;
+    clock.reset();
   }
 
   @Override
   public O step(double t, I input) {
-    if (t - lastT > interval) {
+    if (isNewInterval(t)) {
       lastOutput = inner().step(t, input);
-      lastT = t;
     }
     return lastOutput;
   }
 
+  protected boolean isNewInterval(double t) {
+    return clock.isNewInterval(t);
+  }
+
   @Override
   public String toString() {
-    return "stepped[t=%.3f](%s)".formatted(interval, inner());
+    return "stepped[t=%.3f](%s)".formatted(clock.interval(), inner());
   }
 }
@@ -24,7 +24,6 @@ import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSystem<S>> implements NumericalDynamicalSystem<AggregatedInput.State<S>> {
 
@@ -32,7 +31,8 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
 
   private final double windowT;
   private final EnumSet<Type> types;
-  private final SortedMap<Double, double[]> history;
+  private final SlidingWindow history;
+  private final double[] iInput;
 
   public AggregatedInput(NumericalDynamicalSystem<S> innerVDS, double windowT, Collection<Type> types) {
     super(innerVDS);
@@ -44,16 +44,17 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
     }
     this.windowT = windowT;
     this.types = EnumSet.copyOf(types);
-    this.history = new TreeMap<>();
+    this.history = new SlidingWindow(innerVDS.nOfInputs() / types.size(), windowT);
+    this.iInput = new double[innerVDS.nOfInputs()];
   }
 
   public enum Type {
-    CURRENT, TREND, AVG
+    CURRENT, TREND, AVG, RUNNING_AVG, RUNNING_TREND
   }
 
   @Override
   public State<S> getState() {
-    return new State<>(history, inner().getState());
+    return new State<>(history.toMap(), inner().getState());
   }
 
   @Override
@@ -64,37 +65,40 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
 
   @Override
   public double[] step(double t, double[] input) {
-    // add new sample to memory
-    history.put(t, input);
-    // update memory
-    history.keySet().stream().filter(mt -> mt < t - windowT).toList().forEach(history.keySet()::remove);
+    return step(t, input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double[] output) {
+    // add new sample to memory, evicting old ones
+    history.add(t, input);
     // build inner input
-    double[] iInput = new double[inner().nOfInputs()];
-    double[] firstInput = history.get(history.firstKey());
-    double firstT = history.firstKey();
+    double firstT = history.firstT();
     int c = 0;
     for (Type type : types) {
       if (type.equals(Type.CURRENT)) {
         System.arraycopy(input, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.TREND)) {
-        double[] lInput = new double[input.length];
         double dT = t - firstT;
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (dT == 0) ? 0 : ((input[i] - firstInput[i]) / dT);
+          iInput[c + i] = (dT == 0) ? 0 : ((input[i] - history.first(i)) / dT);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.AVG)) {
-        double[] lInput = new double[input.length];
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (input[i] + firstInput[i]) / 2d;
+          iInput[c + i] = (input[i] + history.first(i)) / 2d;
+        }
+      } else if (type.equals(Type.RUNNING_AVG)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = history.mean(i);
+        }
+      } else if (type.equals(Type.RUNNING_TREND)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = history.slope(i);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       }
+      c = c + input.length;
     }
-    return inner().step(t, iInput);
+    return inner().step(t, iInput, output);
   }
 
   @Override
@@ -23,14 +23,12 @@ package io.github.ericmedvet.jsdynsym.core.numerical;
 import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
 import java.util.Collection;
 import java.util.EnumSet;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<S>> implements NumericalDynamicalSystem<S> {
-  private final double windowT;
   private final EnumSet<Type> types;
-  private final SortedMap<Double, double[]> memory;
+  private final SlidingWindow memory;
+  private final double[] iInput;
 
   public EnhancedInput(NumericalDynamicalSystem<S> inner, double windowT, Collection<Type> types) {
     super(inner);
@@ -40,13 +38,13 @@ public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<
               .formatted(types.size(), types, inner.nOfInputs())
       );
     }
-    this.windowT = windowT;
     this.types = EnumSet.copyOf(types);
-    memory = new TreeMap<>();
+    memory = new SlidingWindow(inner.nOfInputs() / types.size(), windowT);
+    iInput = new double[inner.nOfInputs()];
   }
 
   public enum Type {
-    CURRENT, TREND, AVG
+    CURRENT, TREND, AVG, RUNNING_AVG, RUNNING_TREND
   }
 
   @Override
@@ -62,37 +60,40 @@ public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<
 
   @Override
   public double[] step(double t, double[] input) {
-    // add new sample to memory
-    memory.put(t, input);
-    // update memory
-    memory.keySet().stream().filter(mt -> mt < t - windowT).toList().forEach(memory.keySet()::remove);
+    return step(t, input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double[] output) {
+    // add new sample to memory, evicting old ones
+    memory.add(t, input);
     // build inner input
-    double[] iInput = new double[inner().nOfInputs()];
-    double[] firstInput = memory.get(memory.firstKey());
-    double firstT = memory.firstKey();
+    double firstT = memory.firstT();
     int c = 0;
     for (Type type : types) {
       if (type.equals(Type.CURRENT)) {
         System.arraycopy(input, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.TREND)) {
-        double[] lInput = new double[input.length];
         double dT = t - firstT;
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (dT == 0) ? 0 : ((input[i] - firstInput[i]) / dT);
+          iInput[c + i] = (dT == 0) ? 0 : ((input[i] - memory.first(i)) / dT);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.AVG)) {
-        double[] lInput = new double[input.length];
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (input[i] + firstInput[i]) / 2d;
+          iInput[c + i] = (input[i] + memory.first(i)) / 2d;
+        }
+      } else if (type.equals(Type.RUNNING_AVG)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.mean(i);
+        }
+      } else if (type.equals(Type.RUNNING_TREND)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.slope(i);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       }
+      c = c + input.length;
     }
-    return inner().step(t, iInput);
+    return inner().step(t, iInput, output);
   }
 
   @Override
@@ -0,0 +1,379 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A chain of stateless numerical stages evaluated in a single pass. Adjacent affine stages, i.e., {@link
+ * LinearCombination}s, the layers of {@link MultiLayerPerceptron}s with identity activation, and rescalings (see
+ * {@link #scaledOutput(double, double)}), are folded into a single affine stage; element-wise operators are applied
+ * while producing the output of the stage preceding them. Wrapped functions are kept by reference, hence later changes
+ * of their parameters are honoured, unless they are folded with an adjacent stage: in that case, their parameters at
+ * composition time are used.
+ */
+public class FusedMultivariateRealFunction implements MultivariateRealFunction {
+
+  private final List<Stage> stages;
+  private final String name;
+
+  private FusedMultivariateRealFunction(List<Stage> stages, String name) {
+    this.stages = List.copyOf(stages);
+    this.name = name;
+  }
+
+  private sealed interface Stage permits Affine, Elementwise, Opaque {
+    int nOfInputs();
+
+    int nOfOutputs();
+
+    DoubleUnaryOperator[] post();
+
+    Stage withPost(DoubleUnaryOperator[] post);
+  }
+
+  private record Affine(double[][] m, double[] q, DoubleUnaryOperator[] post) implements Stage {
+    @Override
+    public int nOfInputs() {
+      return m[0].length;
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return m.length;
+    }
+
+    @Override
+    public Stage withPost(DoubleUnaryOperator[] post) {
+      return new Affine(m, q, post);
+    }
+  }
+
+  private record Elementwise(int n, DoubleUnaryOperator[] post) implements Stage {
+    @Override
+    public int nOfInputs() {
+      return n;
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return n;
+    }
+
+    @Override
+    public Stage withPost(DoubleUnaryOperator[] post) {
+      return new Elementwise(n, post);
+    }
+  }
+
+  private record Opaque(MultivariateRealFunction f, DoubleUnaryOperator[] post) implements Stage {
+    @Override
+    public int nOfInputs() {
+      return f.nOfInputs();
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return f.nOfOutputs();
+    }
+
+    @Override
+    public Stage withPost(DoubleUnaryOperator[] post) {
+      return new Opaque(f, post);
+    }
+  }
+
+  private record Rescaling(double slope, double intercept) implements DoubleUnaryOperator {
+    @Override
+    public double applyAsDouble(double x) {
+      return slope * x + intercept;
+    }
+  }
+
+  public static FusedMultivariateRealFunction of(MultivariateRealFunction f) {
+    if (f instanceof FusedMultivariateRealFunction fused) {
+      return fused;
+    }
+    return new FusedMultivariateRealFunction(List.of(new Opaque(f, new DoubleUnaryOperator[0])), f.toString());
+  }
+
+  private static List<Stage> affineStages(LinearCombination linearCombination) {
+    int nOfInputs = linearCombination.nOfInputs();
+    int nOfOutputs = linearCombination.nOfOutputs();
+    double[] params = linearCombination.getParams();
+    double[][] m = new double[nOfOutputs][];
+    double[] q = new double[nOfOutputs];
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      m[i] = Arrays.copyOfRange(params, i * nOfInputs, (i + 1) * nOfInputs);
+      if (params.length > nOfInputs * nOfOutputs) {
+        q[i] = params[nOfInputs * nOfOutputs + i];
+      }
+    }
+    return List.of(new Affine(m, q, new DoubleUnaryOperator[0]));
+  }
+
+  private static List<Stage> affineStages(MultiLayerPerceptron mlp) {
+    // the activation function is applied also to the inputs, and is omitted when it is the identity
+    MultiLayerPerceptron.ActivationFunction activationFunction = mlp.getActivationFunction();
+    DoubleUnaryOperator[] post = activationFunction.equals(MultiLayerPerceptron.ActivationFunction.IDENTITY)
+        ? new DoubleUnaryOperator[0]
+        : new DoubleUnaryOperator[]{activationFunction};
+    List<Stage> stages = new ArrayList<>();
+    stages.add(new Elementwise(mlp.nOfInputs(), post));
+    double[] weights = mlp.getParams();
+    int c = 0;
+    for (int l = 1; l < mlp.nOfLayers(); l = l + 1) {
+      int nOfPrevious = mlp.sizeOfLayer(l - 1);
+      double[][] m = new double[mlp.sizeOfLayer(l)][];
+      double[] q = new double[mlp.sizeOfLayer(l)];
+      for (int j = 0; j < m.length; j = j + 1) {
+        q[j] = weights[c];
+        m[j] = Arrays.copyOfRange(weights, c + 1, c + 1 + nOfPrevious);
+        c = c + nOfPrevious + 1;
+      }
+      append(stages, new Affine(m, q, post));
+    }
+    return stages;
+  }
+
+  // the affine stages a stage can be expanded into, for folding it with adjacent stages
+  private static List<Stage> expand(Stage stage) {
+    List<Stage> stages = new ArrayList<>();
+    if (stage instanceof Opaque o && o.f() instanceof LinearCombination linearCombination) {
+      affineStages(linearCombination).forEach(s -> append(stages, s));
+    } else if (stage instanceof Opaque o && o.f() instanceof MultiLayerPerceptron mlp) {
+      affineStages(mlp).forEach(s -> append(stages, s));
+    } else {
+      return List.of(stage);
+    }
+    Arrays.stream(stage.post()).forEach(op -> append(stages, op));
+    return stages;
+  }
+
+  private static List<Stage> withLastExpanded(List<Stage> stages) {
+    List<Stage> expanded = new ArrayList<>(stages.subList(0, stages.size() - 1));
+    expand(stages.getLast()).forEach(s -> append(expanded, s));
+    return expanded;
+  }
+
+  private static void fold(List<Stage> stages, DoubleUnaryOperator op) {
+    if (op instanceof Rescaling && stages.getLast() instanceof Opaque o && o.post().length == 0) {
+      List<Stage> expanded = withLastExpanded(stages);
+      append(expanded, op);
+      if (expanded.size() <= stages.size() && expanded.getLast().post().length == 0) {
+        stages.clear();
+        stages.addAll(expanded);
+        return;
+      }
+    }
+    append(stages, op);
+  }
+
+  private static void fold(List<Stage> stages, Stage stage) {
+    if (!stages.isEmpty()) {
+      List<Stage> expanded = withLastExpanded(stages);
+      expand(stage).forEach(s -> append(expanded, s));
+      List<Stage> notExpanded = new ArrayList<>(stages);
+      append(notExpanded, stage);
+      if (expanded.size() < notExpanded.size()) {
+        stages.clear();
+        stages.addAll(expanded);
+        return;
+      }
+    }
+    append(stages, stage);
+  }
+
+  private static double applyAll(DoubleUnaryOperator[] post, double v) {
+    for (DoubleUnaryOperator op : post) {
+      v = op.applyAsDouble(v);
+    }
+    return v;
+  }
+
+  private static void append(List<Stage> stages, DoubleUnaryOperator op) {
+    Stage last = stages.getLast();
+    DoubleUnaryOperator[] post = last.post();
+    if (op instanceof Rescaling r && last instanceof Affine a && post.length == 0) {
+      double[][] m = Arrays.stream(a.m())
+          .map(row -> Arrays.stream(row).map(v -> r.slope() * v).toArray())
+          .toArray(double[][]::new);
+      double[] q = Arrays.stream(a.q()).map(r).toArray();
+      stages.set(stages.size() - 1, new Affine(m, q, post));
+    } else if (op instanceof Rescaling r && post.length > 0 && post[post.length - 1] instanceof Rescaling lastR) {
+      DoubleUnaryOperator[] newPost = post.clone();
+      newPost[post.length - 1] = new Rescaling(r.slope() * lastR.slope(), r.slope() * lastR.intercept() + r.intercept());
+      stages.set(stages.size() - 1, last.withPost(newPost));
+    } else {
+      DoubleUnaryOperator[] newPost = Arrays.copyOf(post, post.length + 1);
+      newPost[post.length] = op;
+      stages.set(stages.size() - 1, last.withPost(newPost));
+    }
+  }
+
+  private static void append(List<Stage> stages, Stage stage) {
+    if (stage instanceof Elementwise elementwise && !stages.isEmpty()) {
+      Arrays.stream(elementwise.post()).forEach(op -> append(stages, op));
+      return;
+    }
+    if (!stages.isEmpty() && stages.getLast() instanceof Elementwise last && last.post().length == 0) {
+      // an element-wise stage without operators is the identity
+      stages.removeLast();
+    }
+    if (stage instanceof Affine a && !stages.isEmpty()) {
+      Stage last = stages.getLast();
+      DoubleUnaryOperator[] post = last.post();
+      if (last instanceof Affine lastA && post.length == 0) {
+        // (m2, q2) after (m1, q1) is (m2 m1, m2 q1 + q2)
+        double[][] m = new double[a.m().length][lastA.m()[0].length];
+        for (int i = 0; i < m.length; i++) {
+          for (int k = 0; k < lastA.m().length; k++) {
+            LinearAlgebraUtils.axpy(a.m()[i][k], lastA.m()[k], m[i]);
+          }
+        }
+        double[] q = LinearAlgebraUtils.sum(LinearAlgebraUtils.product(a.m(), lastA.q()), a.q());
+        stages.set(stages.size() - 1, new Affine(m, q, a.post()));
+        return;
+      }
+      if (post.length > 0 && post[post.length - 1] instanceof Rescaling r) {
+        // (m, q) after x -> s x + i is (s m, q + i m 1)
+        double[][] m = Arrays.stream(a.m())
+            .map(row -> Arrays.stream(row).map(v -> r.slope() * v).toArray())
+            .toArray(double[][]::new);
+        double[] q = a.q().clone();
+        for (int i = 0; i < q.length; i++) {
+          q[i] = q[i] + r.intercept() * Arrays.stream(a.m()[i]).sum();
+        }
+        if (post.length == 1 && last instanceof Elementwise) {
+          stages.removeLast();
+        } else {
+          stages.set(stages.size() - 1, last.withPost(Arrays.copyOf(post, post.length - 1)));
+        }
+        append(stages, new Affine(m, q, a.post()));
+        return;
+      }
+    }
+    stages.add(stage);
+  }
+
+  @Override
+  public FusedMultivariateRealFunction andThen(MultivariateRealFunction other) {
+    if (other.nOfInputs() != nOfOutputs()) {
+      throw new IllegalArgumentException(
+          "Incompatible input/output size: input=%d, output=%d".formatted(other.nOfInputs(), nOfOutputs())
+      );
+    }
+    List<Stage> newStages = new ArrayList<>(stages);
+    of(other).stages.forEach(s -> fold(newStages, s));
+    return new FusedMultivariateRealFunction(newStages, name + "[then:%s]".formatted(other));
+  }
+
+  @Override
+  public FusedMultivariateRealFunction andThen(DoubleUnaryOperator f) {
+    List<Stage> newStages = new ArrayList<>(stages);
+    fold(newStages, f);
+    return new FusedMultivariateRealFunction(newStages, name + "[all:%s]".formatted(f));
+  }
+
+  @Override
+  public FusedMultivariateRealFunction scaledOutput(double slope, double intercept) {
+    List<Stage> newStages = new ArrayList<>(stages);
+    fold(newStages, new Rescaling(slope, intercept));
+    return new FusedMultivariateRealFunction(
+        newStages,
+        name + "[scaled:m=%f;q=%f]".formatted(slope, intercept)
+    );
+  }
+
+  @Override
+  public double[] compute(double... input) {
+    return compute(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] compute(double[] input, double[] output) {
+    if (input.length != nOfInputs()) {
+      throw new IllegalArgumentException(
+          "Wrong input size: %d found, %d expected".formatted(input.length, nOfInputs())
+      );
+    }
+    if (output.length != nOfOutputs()) {
+      throw new IllegalArgumentException(
+          String.format("Expected output length is %d: found %d", nOfOutputs(), output.length)
+      );
+    }
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    double[] src = input;
+    for (int s = 0; s < stages.size(); s++) {
+      Stage stage = stages.get(s);
+      double[] dst = (s == stages.size() - 1) ? output : scratchBuffers.doubles(stage.nOfOutputs());
+      DoubleUnaryOperator[] post = stage.post();
+      switch (stage) {
+        case Affine a -> {
+          for (int j = 0; j < dst.length; j++) {
+            dst[j] = applyAll(post, LinearAlgebraUtils.dotProduct(a.m()[j], src) + a.q()[j]);
+          }
+        }
+        case Elementwise e -> {
+          for (int j = 0; j < e.n(); j++) {
+            dst[j] = applyAll(post, src[j]);
+          }
+        }
+        case Opaque o -> {
+          o.f().compute(src, dst);
+          if (post.length > 0) {
+            for (int j = 0; j < dst.length; j++) {
+              dst[j] = applyAll(post, dst[j]);
+            }
+          }
+        }
+      }
+      if (src != input) {
+        scratchBuffers.release(src);
+      }
+      src = dst;
+    }
+    return output;
+  }
+
+  @Override
+  public int nOfInputs() {
+    return stages.getFirst().nOfInputs();
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return stages.getLast().nOfOutputs();
+  }
+
+  int nOfStages() {
+    return stages.size();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,60 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import java.util.Optional;
+
+/**
+ * Low-level kernels of {@link LinearAlgebraUtils}. Implementations never use fused multiply-add, so that element-wise
+ * kernels ({@link #add}, {@link #axpy}, {@link #mulAdd}) give results identical to the scalar loops; {@link #dot} may
+ * differ from them only because of the order of the summation.
+ */
+interface LinearAlgebraKernels {
+
+  String VECTOR_KERNELS_CLASS_NAME = "io.github.ericmedvet.jsdynsym.core.numerical.VectorLinearAlgebraKernels";
+
+  String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+
+  static LinearAlgebraKernels get() {
+    // the vector kernels are compiled only with the vector profile and used only if the incubator module is resolved
+    Optional<Module> vectorModule = ModuleLayer.boot().findModule(VECTOR_MODULE_NAME);
+    if (vectorModule.isEmpty()) {
+      return new ScalarLinearAlgebraKernels();
+    }
+    try {
+      LinearAlgebraKernels.class.getModule().addReads(vectorModule.get());
+      return (LinearAlgebraKernels) Class.forName(VECTOR_KERNELS_CLASS_NAME).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // the vector kernels have not been compiled in
+      return new ScalarLinearAlgebraKernels();
+    }
+  }
+
+  void add(double[] v1, double[] v2, double[] out, int length);
+
+  void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+  double dot(double initial, double[] v1, int offset1, double[] v2, int offset2, int length);
+
+  float dot(float initial, float[] v1, int offset1, float[] v2, int offset2, int length);
+
+  void mulAdd(double[] a, int aOffset, double[] b, int bOffset, double[] y, int yOffset, int length);
+}
@@ -19,43 +19,110 @@
  */
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
 public class LinearAlgebraUtils {
 
+  private static final LinearAlgebraKernels KERNELS = LinearAlgebraKernels.get();
+
   private LinearAlgebraUtils() {
   }
 
-  public static double dotProduct(double[] v1, double[] v2) {
-    if (v1.length != v2.length) {
+  private static void checkSize(int size1, int size2) {
+    if (size1 != size2) {
       throw new IllegalArgumentException(
-          "Wrong (not equal) vector size: %d and %d".formatted(v1.length, v2.length)
+          "Wrong (not equal) vector size: %d and %d".formatted(size1, size2)
       );
     }
-    double sum = 0d;
-    for (int i = 0; i < v1.length; i++) {
-      sum += v1[i] * v2[i];
+  }
+
+  public static void axpy(double a, double[] x, double[] y) {
+    checkSize(x.length, y.length);
+    KERNELS.axpy(a, x, 0, y, 0, x.length);
+  }
+
+  public static double[] biasedProduct(
+      double[] weights,
+      int offset,
+      double[] input,
+      int nOfInputs,
+      DoubleUnaryOperator activation,
+      double[] output,
+      int nOfOutputs
+  ) {
+    int c = offset;
+    for (int j = 0; j < nOfOutputs; j++) {
+      output[j] = activation.applyAsDouble(KERNELS.dot(weights[c], weights, c + 1, input, 0, nOfInputs));
+      c = c + nOfInputs + 1;
     }
-    return sum;
+    return output;
   }
 
-  public static double[] product(double[][] m, double[] v) {
-    double[] o = new double[m.length];
-    for (int j = 0; j < o.length; j++) {
-      o[j] = dotProduct(m[j], v);
+  public static float[] biasedProduct(
+      float[] weights,
+      int offset,
+      float[] input,
+      int nOfInputs,
+      DoubleUnaryOperator activation,
+      float[] output,
+      int nOfOutputs
+  ) {
+    int c = offset;
+    for (int j = 0; j < nOfOutputs; j++) {
+      output[j] = (float) activation.applyAsDouble(KERNELS.dot(weights[c], weights, c + 1, input, 0, nOfInputs));
+      c = c + nOfInputs + 1;
     }
-    return o;
+    return output;
   }
 
-  public static double[] sum(double[] v1, double[] v2) {
-    if (v1.length != v2.length) {
-      throw new IllegalArgumentException(
-          "Wrong (not equal) vector size: %d and %d".formatted(v1.length, v2.length)
-      );
+  public static double dotProduct(double[] v1, double[] v2) {
+    checkSize(v1.length, v2.length);
+    return KERNELS.dot(0d, v1, 0, v2, 0, v1.length);
+  }
+
+  public static double dotProduct(double[] v1, int offset1, double[] v2, int offset2, int length) {
+    return KERNELS.dot(0d, v1, offset1, v2, offset2, length);
+  }
+
+  public static void mulAdd(double[] a, int aOffset, double[] b, int bOffset, double[] y, int yOffset, int length) {
+    KERNELS.mulAdd(a, aOffset, b, bOffset, y, yOffset, length);
+  }
+
+  public static double[] product(double[][] m, double[] v) {
+    return product(m, v, new double[m.length]);
+  }
+
+  public static double[] product(double[][] m, double[] v, double[] out) {
+    checkSize(m.length, out.length);
+    for (int j = 0; j < out.length; j++) {
+      out[j] = dotProduct(m[j], v);
     }
-    double[] sum = new double[v1.length];
-    for (int i = 0; i < v1.length; i++) {
-      sum[i] = v1[i] + v2[i];
+    return out;
+  }
+
+  public static double[] product(double[] a, double[] b, int nOfRows, int nOfInner, int nOfColumns, double[] out) {
+    checkSize(a.length, nOfRows * nOfInner);
+    checkSize(b.length, nOfInner * nOfColumns);
+    checkSize(out.length, nOfRows * nOfColumns);
+    Arrays.fill(out, 0d);
+    for (int i = 0; i < nOfRows; i++) {
+      for (int k = 0; k < nOfInner; k++) {
+        KERNELS.axpy(a[i * nOfInner + k], b, k * nOfColumns, out, i * nOfColumns, nOfColumns);
+      }
     }
-    return sum;
+    return out;
+  }
+
+  public static double[] sum(double[] v1, double[] v2) {
+    return sum(v1, v2, new double[v1.length]);
+  }
+
+  public static double[] sum(double[] v1, double[] v2, double[] out) {
+    checkSize(v1.length, v2.length);
+    checkSize(v1.length, out.length);
+    KERNELS.add(v1, v2, out, v1.length);
+    return out;
   }
 
 }
@@ -82,6 +82,11 @@ public class LinearCombination implements MultivariateRealFunction, NumericalPar
 
   @Override
   public double[] compute(double... input) {
+    return compute(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] compute(double[] input, double[] output) {
     if (input.length != nOfInputs()) {
       throw new IllegalArgumentException(
           "Wrong input size: %d found, %d expected".formatted(
@@ -90,7 +95,23 @@ public class LinearCombination implements MultivariateRealFunction, NumericalPar
           )
       );
     }
-    return LinearAlgebraUtils.sum(LinearAlgebraUtils.product(m, input), q);
+    return LinearAlgebraUtils.sum(LinearAlgebraUtils.product(m, input, output), q, output);
+  }
+
+  @Override
+  public double[] computeBatch(double[] inputs) {
+    int nOfRows = checkBatchSize(inputs);
+    int nOfInputs = nOfInputs();
+    int nOfOutputs = nOfOutputs();
+    double[] outputs = new double[nOfRows * nOfOutputs];
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      double[] row = m[i];
+      for (int r = 0; r < nOfRows; r = r + 1) {
+        // as in compute(), q is added after the dot product
+        outputs[r * nOfOutputs + i] = LinearAlgebraUtils.dotProduct(row, 0, inputs, r * nOfInputs, nOfInputs) + q[i];
+      }
+    }
+    return outputs;
   }
 
   @Override
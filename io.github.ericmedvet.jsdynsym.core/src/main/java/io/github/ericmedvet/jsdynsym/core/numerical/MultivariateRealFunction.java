@@ -20,7 +20,6 @@
 
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
-import io.github.ericmedvet.jnb.datastructure.NamedFunction;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.DoubleUnaryOperator;
@@ -31,6 +30,11 @@ public interface MultivariateRealFunction extends NumericalTimeInvariantStateles
 
   double[] compute(double... input);
 
+  default double[] compute(double[] input, double[] output) {
+    System.arraycopy(compute(input), 0, output, 0, nOfOutputs());
+    return output;
+  }
+
   static MultivariateRealFunction from(Function<double[], double[]> f, int nOfInputs, int nOfOutputs) {
     return new MultivariateRealFunction() {
       @Override
@@ -67,25 +71,41 @@ public interface MultivariateRealFunction extends NumericalTimeInvariantStateles
     return compute(input);
   }
 
-  default MultivariateRealFunction andThen(MultivariateRealFunction other) {
-    if (other.nOfInputs() != nOfOutputs()) {
+  @Override
+  default double[] step(double t, double[] input, double[] output) {
+    return compute(input, output);
+  }
+
+  default int checkBatchSize(double[] inputs) {
+    if (inputs.length % nOfInputs() != 0) {
       throw new IllegalArgumentException(
-          "Incompatible input/output size: input=%d, output=%d".formatted(other.nOfInputs(), nOfOutputs())
+          "Wrong batch size: %d is not a multiple of %d inputs".formatted(inputs.length, nOfInputs())
       );
     }
-    MultivariateRealFunction thisMrf = this;
-    return MultivariateRealFunction.from(
-        NamedFunction.from(in -> other.compute(thisMrf.compute(in)), this + "[then:%s]".formatted(other)),
-        thisMrf.nOfInputs(),
-        other.nOfOutputs()
-    );
+    return inputs.length / nOfInputs();
+  }
+
+  default double[] computeBatch(double[] inputs) {
+    int nOfRows = checkBatchSize(inputs);
+    int nOfInputs = nOfInputs();
+    int nOfOutputs = nOfOutputs();
+    double[] outputs = new double[nOfRows * nOfOutputs];
+    for (int r = 0; r < nOfRows; r = r + 1) {
+      double[] output = compute(Arrays.copyOfRange(inputs, r * nOfInputs, (r + 1) * nOfInputs));
+      System.arraycopy(output, 0, outputs, r * nOfOutputs, nOfOutputs);
+    }
+    return outputs;
+  }
+
+  default MultivariateRealFunction andThen(MultivariateRealFunction other) {
+    return FusedMultivariateRealFunction.of(this).andThen(other);
   }
 
   default MultivariateRealFunction andThen(DoubleUnaryOperator f) {
-    return MultivariateRealFunction.from(
-        NamedFunction.from(in -> Arrays.stream(compute(in)).map(f).toArray(), "[all:%s]".formatted(f)),
-        nOfInputs(),
-        nOfOutputs()
-    );
+    return FusedMultivariateRealFunction.of(this).andThen(f);
+  }
+
+  default MultivariateRealFunction scaledOutput(double slope, double intercept) {
+    return FusedMultivariateRealFunction.of(this).scaledOutput(slope, intercept);
   }
 }
@@ -21,7 +21,6 @@
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jnb.datastructure.AbstractComposed;
-import java.util.Arrays;
 import java.util.random.RandomGenerator;
 
 public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> implements NumericalDynamicalSystem<S> {
@@ -29,6 +28,7 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
   private final double inputSigma;
   private final double outputSigma;
   private final RandomGenerator randomGenerator;
+  private final double[] noisedInput;
 
   public Noised(
       NumericalDynamicalSystem<S> inner,
@@ -40,6 +40,7 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
     this.inputSigma = inputSigma;
     this.outputSigma = outputSigma;
     this.randomGenerator = randomGenerator;
+    noisedInput = new double[inner.nOfInputs()];
   }
 
   @Override
@@ -49,24 +50,30 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
 
   @Override
   public void reset() {
-    inner().getState();
+    inner().reset();
   }
 
   @Override
   public double[] step(double t, double[] input) {
-    double[] noisedInput = input;
+    return step(t, input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double[] output) {
+    double[] innerInput = input;
     if (inputSigma > 0) {
-      noisedInput = Arrays.stream(input)
-          .map(v -> v + randomGenerator.nextGaussian(0, inputSigma))
-          .toArray();
+      for (int i = 0; i < input.length; i = i + 1) {
+        noisedInput[i] = input[i] + randomGenerator.nextGaussian(0, inputSigma);
+      }
+      innerInput = noisedInput;
     }
-    double[] noisedOutput = inner().step(t, noisedInput);
+    inner().step(t, innerInput, output);
     if (outputSigma > 0) {
-      noisedOutput = Arrays.stream(noisedOutput)
-          .map(v -> v + randomGenerator.nextGaussian(0, outputSigma))
-          .toArray();
+      for (int i = 0; i < output.length; i = i + 1) {
+        output[i] = output[i] + randomGenerator.nextGaussian(0, outputSigma);
+      }
     }
-    return noisedOutput;
+    return output;
   }
 
   @Override
@@ -30,6 +30,16 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
 
   int nOfOutputs();
 
+  /**
+   * Steps this system and writes its output in the provided {@code output} array, which is also returned.
+   * Implementations should not keep references to {@code input} or {@code output} after returning, so that callers
+   * can reuse both arrays across steps.
+   */
+  default double[] step(double t, double[] input, double[] output) {
+    System.arraycopy(step(t, input), 0, output, 0, nOfOutputs());
+    return output;
+  }
+
   static <S1> NumericalDynamicalSystem<S1> from(
       DynamicalSystem<double[], double[], S1> inner,
       int nOfInputs,
@@ -52,6 +62,14 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
           return inner.step(t, input);
         }
 
+        @Override
+        public double[] step(double t, double[] input, double[] output) {
+          if (inner instanceof NumericalDynamicalSystem<S1> numericalInner) {
+            return numericalInner.step(t, input, output);
+          }
+          return Composed.super.step(t, input, output);
+        }
+
         @Override
         public NumericalDynamicalSystem<S1> inner() {
           //noinspection unchecked
@@ -90,6 +108,14 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
         return inner.step(t, input);
       }
 
+      @Override
+      public double[] step(double t, double[] input, double[] output) {
+        if (inner instanceof NumericalDynamicalSystem<S1> numericalInner) {
+          return numericalInner.step(t, input, output);
+        }
+        return NumericalDynamicalSystem.super.step(t, input, output);
+      }
+
       @Override
       public int nOfInputs() {
         return nOfInputs;
@@ -0,0 +1,57 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import io.github.ericmedvet.jsdynsym.core.composed.InStepped;
+import io.github.ericmedvet.jsdynsym.core.composed.Stepped;
+
+public class NumericalInStepped<S> extends InStepped<double[], double[], S> implements NumericalDynamicalSystem<Stepped.State<S>> {
+  private final NumericalDynamicalSystem<S> numericalInner;
+  private final double[] lastInput;
+
+  public NumericalInStepped(NumericalDynamicalSystem<S> inner, double interval) {
+    super(inner, interval);
+    numericalInner = inner;
+    lastInput = new double[inner.nOfInputs()];
+  }
+
+  @Override
+  public int nOfInputs() {
+    return numericalInner.nOfInputs();
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return numericalInner.nOfOutputs();
+  }
+
+  @Override
+  public double[] step(double t, double[] input) {
+    return step(t, input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double[] output) {
+    if (isNewInterval(t)) {
+      System.arraycopy(input, 0, lastInput, 0, lastInput.length);
+    }
+    return numericalInner.step(t, lastInput, output);
+  }
+}
@@ -21,7 +21,6 @@
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jsdynsym.core.StatelessSystem;
-import java.util.Arrays;
 import java.util.function.BiFunction;
 import java.util.function.DoubleUnaryOperator;
 
@@ -74,21 +73,62 @@ public interface NumericalStatelessSystem extends NumericalDynamicalSystem<State
       );
     }
     NumericalStatelessSystem thisSystem = this;
-    return NumericalStatelessSystem.from(
-        thisSystem.nOfInputs(),
-        other.nOfOutputs(),
-        (t, in) -> other.step(t, thisSystem.step(t, in))
-    );
+    return new NumericalStatelessSystem() {
+      @Override
+      public int nOfInputs() {
+        return thisSystem.nOfInputs();
+      }
+
+      @Override
+      public int nOfOutputs() {
+        return other.nOfOutputs();
+      }
+
+      @Override
+      public double[] step(double t, double[] input) {
+        return step(t, input, new double[nOfOutputs()]);
+      }
+
+      @Override
+      public double[] step(double t, double[] input, double[] output) {
+        ScratchBuffers scratchBuffers = ScratchBuffers.get();
+        double[] intermediate = scratchBuffers.doubles(thisSystem.nOfOutputs());
+        try {
+          return other.step(t, thisSystem.step(t, input, intermediate), output);
+        } finally {
+          scratchBuffers.release(intermediate);
+        }
+      }
+    };
   }
 
   default NumericalStatelessSystem andThen(DoubleUnaryOperator f) {
-    return NumericalStatelessSystem.from(
-        nOfInputs(),
-        nOfOutputs(),
-        (t, in) -> Arrays.stream(step(t, in))
-            .map(f)
-            .toArray()
-    );
+    NumericalStatelessSystem thisSystem = this;
+    return new NumericalStatelessSystem() {
+      @Override
+      public int nOfInputs() {
+        return thisSystem.nOfInputs();
+      }
+
+      @Override
+      public int nOfOutputs() {
+        return thisSystem.nOfOutputs();
+      }
+
+      @Override
+      public double[] step(double t, double[] input) {
+        return step(t, input, new double[nOfOutputs()]);
+      }
+
+      @Override
+      public double[] step(double t, double[] input, double[] output) {
+        thisSystem.step(t, input, output);
+        for (int i = 0; i < output.length; i = i + 1) {
+          output[i] = f.applyAsDouble(output[i]);
+        }
+        return output;
+      }
+    };
   }
 
   @Override
@@ -22,4 +22,15 @@ package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jsdynsym.core.TimeInvariantDynamicalSystem;
 
-public interface NumericalTimeInvariantDynamicalSystem<S> extends NumericalDynamicalSystem<S>, TimeInvariantDynamicalSystem<double[], double[], S> {}
+public interface NumericalTimeInvariantDynamicalSystem<S> extends NumericalDynamicalSystem<S>, TimeInvariantDynamicalSystem<double[], double[], S> {
+
+  default double[] step(double[] input, double[] output) {
+    System.arraycopy(step(input), 0, output, 0, nOfOutputs());
+    return output;
+  }
+
+  @Override
+  default double[] step(double t, double[] input, double[] output) {
+    return step(input, output);
+  }
+}
@@ -0,0 +1,63 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+class ScalarLinearAlgebraKernels implements LinearAlgebraKernels {
+
+  @Override
+  public void add(double[] v1, double[] v2, double[] out, int length) {
+    for (int i = 0; i < length; i++) {
+      out[i] = v1[i] + v2[i];
+    }
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    for (int i = 0; i < length; i++) {
+      y[yOffset + i] = y[yOffset + i] + a * x[xOffset + i];
+    }
+  }
+
+  @Override
+  public double dot(double initial, double[] v1, int offset1, double[] v2, int offset2, int length) {
+    double sum = initial;
+    for (int i = 0; i < length; i++) {
+      sum = sum + v1[offset1 + i] * v2[offset2 + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public float dot(float initial, float[] v1, int offset1, float[] v2, int offset2, int length) {
+    float sum = initial;
+    for (int i = 0; i < length; i++) {
+      sum = sum + v1[offset1 + i] * v2[offset2 + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public void mulAdd(double[] a, int aOffset, double[] b, int bOffset, double[] y, int yOffset, int length) {
+    for (int i = 0; i < length; i++) {
+      y[yOffset + i] = y[yOffset + i] + a[aOffset + i] * b[bOffset + i];
+    }
+  }
+}
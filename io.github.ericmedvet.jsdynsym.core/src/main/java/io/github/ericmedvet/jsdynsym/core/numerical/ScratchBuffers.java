@@ -0,0 +1,125 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import java.util.Arrays;
+
+/**
+ * A per-thread pool of arrays for the intermediate values of computations that do not keep state between calls, so
+ * that these computations neither allocate at each call nor need per-instance buffers. A computation takes the arrays
+ * it needs with {@link #doubles(int)} (or the {@code float} and {@code byte} variants) and gives them back with
+ * {@link #release(double[])}, usually in a {@code finally} block. Taken arrays have exactly the requested length and an
+ * undefined content; an array is never given to two computations at the same time, hence nested computations on the
+ * same thread are safe. Arrays which are not given back are just garbage collected. Releasing an array twice is an
+ * error; an array which has not been taken from the pool may be released, but must not be used afterwards.
+ */
+public class ScratchBuffers {
+
+  private static final ThreadLocal<ScratchBuffers> BUFFERS = ThreadLocal.withInitial(ScratchBuffers::new);
+
+  private final Pool doubles;
+  private final Pool floats;
+  private final Pool bytes;
+
+  private ScratchBuffers() {
+    doubles = new Pool();
+    floats = new Pool();
+    bytes = new Pool();
+  }
+
+  // free arrays, in one stack for each length: lengths are few, hence they are scanned linearly
+  private static final class Pool {
+    private int[] lengths = new int[0];
+    private Object[][] stacks = new Object[0][];
+    private int[] sizes = new int[0];
+
+    private void release(Object array, int length) {
+      int slot = slot(length);
+      Object[] stack = stacks[slot];
+      for (int i = 0; i < sizes[slot]; i = i + 1) {
+        if (stack[i] == array) {
+          throw new IllegalArgumentException("Array of length %d released twice".formatted(length));
+        }
+      }
+      if (sizes[slot] == stack.length) {
+        stack = Arrays.copyOf(stack, Math.max(2, 2 * stack.length));
+        stacks[slot] = stack;
+      }
+      stack[sizes[slot]] = array;
+      sizes[slot] = sizes[slot] + 1;
+    }
+
+    private int slot(int length) {
+      for (int i = 0; i < lengths.length; i = i + 1) {
+        if (lengths[i] == length) {
+          return i;
+        }
+      }
+      lengths = Arrays.copyOf(lengths, lengths.length + 1);
+      stacks = Arrays.copyOf(stacks, stacks.length + 1);
+      sizes = Arrays.copyOf(sizes, sizes.length + 1);
+      lengths[lengths.length - 1] = length;
+      stacks[stacks.length - 1] = new Object[0];
+      return lengths.length - 1;
+    }
+
+    private Object take(int length) {
+      int slot = slot(length);
+      if (sizes[slot] == 0) {
+        return null;
+      }
+      sizes[slot] = sizes[slot] - 1;
+      Object array = stacks[slot][sizes[slot]];
+      stacks[slot][sizes[slot]] = null;
+      return array;
+    }
+  }
+
+  public static ScratchBuffers get() {
+    return BUFFERS.get();
+  }
+
+  public byte[] bytes(int length) {
+    byte[] array = (byte[]) bytes.take(length);
+    return array != null ? array : new byte[length];
+  }
+
+  public double[] doubles(int length) {
+    double[] array = (double[]) doubles.take(length);
+    return array != null ? array : new double[length];
+  }
+
+  public float[] floats(int length) {
+    float[] array = (float[]) floats.take(length);
+    return array != null ? array : new float[length];
+  }
+
+  public void release(byte[] array) {
+    bytes.release(array, array.length);
+  }
+
+  public void release(double[] array) {
+    doubles.release(array, array.length);
+  }
+
+  public void release(float[] array) {
+    floats.release(array, array.length);
+  }
+}
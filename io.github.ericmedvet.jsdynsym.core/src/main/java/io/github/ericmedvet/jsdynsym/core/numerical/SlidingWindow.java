@@ -0,0 +1,195 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+class SlidingWindow {
+
+  private static final int INITIAL_CAPACITY = 16;
+  // running sums are recomputed from the samples after this many evictions, at least, to cancel the rounding drift
+  private static final int RECOMPUTE_INTERVAL = 1024;
+
+  private final int size;
+  private final double windowT;
+  private final double[] sums;
+  private final double[] tSums;
+  private double[] ts;
+  private double[] values;
+  private int head;
+  private int count;
+  // times in running sums are relative to the last added sample, to keep the sums small
+  private double origin;
+  private double tSum;
+  private double t2Sum;
+  private int nOfEvictions;
+  private SortedMap<Double, double[]> map;
+
+  SlidingWindow(int size, double windowT) {
+    this.size = size;
+    this.windowT = windowT;
+    sums = new double[size];
+    tSums = new double[size];
+    ts = new double[INITIAL_CAPACITY];
+    values = new double[INITIAL_CAPACITY * size];
+  }
+
+  void add(double t, double[] input) {
+    if (count > 0 && ts[slot(count - 1)] == t) {
+      remove(count - 1);
+    }
+    rebase(t);
+    if (count == ts.length) {
+      grow();
+    }
+    int slot = slot(count);
+    ts[slot] = t;
+    System.arraycopy(input, 0, values, slot * size, size);
+    for (int i = 0; i < size; i = i + 1) {
+      sums[i] = sums[i] + input[i];
+    }
+    count = count + 1;
+    while (count > 0 && ts[head] < t - windowT) {
+      remove(0);
+      nOfEvictions = nOfEvictions + 1;
+    }
+    // recomputing costs as much as the evictions since the last one, at least
+    if (nOfEvictions >= Math.max(RECOMPUTE_INTERVAL, count)) {
+      recompute();
+    }
+    map = null;
+  }
+
+  void clear() {
+    head = 0;
+    count = 0;
+    origin = 0;
+    tSum = 0;
+    t2Sum = 0;
+    Arrays.fill(sums, 0);
+    Arrays.fill(tSums, 0);
+    nOfEvictions = 0;
+    map = null;
+  }
+
+  double first(int i) {
+    return values[head * size + i];
+  }
+
+  double firstT() {
+    return ts[head];
+  }
+
+  double mean(int i) {
+    return sums[i] / count;
+  }
+
+  double slope(int i) {
+    double den = t2Sum - tSum * tSum / count;
+    if (count < 2 || den <= 0) {
+      return 0;
+    }
+    return (tSums[i] - tSum * sums[i] / count) / den;
+  }
+
+  // the same map is returned until the next add() or clear()
+  SortedMap<Double, double[]> toMap() {
+    if (map == null) {
+      SortedMap<Double, double[]> newMap = new TreeMap<>();
+      for (int j = 0; j < count; j = j + 1) {
+        int slot = slot(j);
+        newMap.put(ts[slot], Arrays.copyOfRange(values, slot * size, (slot + 1) * size));
+      }
+      map = Collections.unmodifiableSortedMap(newMap);
+    }
+    return map;
+  }
+
+  private void grow() {
+    double[] newTs = new double[ts.length * 2];
+    double[] newValues = new double[values.length * 2];
+    for (int j = 0; j < count; j = j + 1) {
+      int slot = slot(j);
+      newTs[j] = ts[slot];
+      System.arraycopy(values, slot * size, newValues, j * size, size);
+    }
+    ts = newTs;
+    values = newValues;
+    head = 0;
+  }
+
+  private void rebase(double newOrigin) {
+    double d = newOrigin - origin;
+    t2Sum = t2Sum - 2 * d * tSum + count * d * d;
+    tSum = tSum - count * d;
+    for (int i = 0; i < size; i = i + 1) {
+      tSums[i] = tSums[i] - d * sums[i];
+    }
+    origin = newOrigin;
+  }
+
+  private void recompute() {
+    tSum = 0;
+    t2Sum = 0;
+    Arrays.fill(sums, 0);
+    Arrays.fill(tSums, 0);
+    for (int j = 0; j < count; j = j + 1) {
+      int slot = slot(j);
+      double d = ts[slot] - origin;
+      tSum = tSum + d;
+      t2Sum = t2Sum + d * d;
+      for (int i = 0; i < size; i = i + 1) {
+        double v = values[slot * size + i];
+        sums[i] = sums[i] + v;
+        tSums[i] = tSums[i] + d * v;
+      }
+    }
+    nOfEvictions = 0;
+  }
+
+  // only the first (j = 0) or the last (j = count - 1) sample can be removed
+  private void remove(int j) {
+    int slot = slot(j);
+    double d = ts[slot] - origin;
+    tSum = tSum - d;
+    t2Sum = t2Sum - d * d;
+    for (int i = 0; i < size; i = i + 1) {
+      double v = values[slot * size + i];
+      sums[i] = sums[i] - v;
+      tSums[i] = tSums[i] - d * v;
+    }
+    if (j == 0) {
+      head = slot(1);
+    }
+    count = count - 1;
+    if (count == 0) {
+      // an empty window has exactly null sums
+      clear();
+    }
+  }
+
+  private int slot(int j) {
+    return (head + j) % ts.length;
+  }
+}
@@ -0,0 +1,395 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.LinearCombination;
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A frozen, specialized version of a feed-forward network whose weights and topology are baked into the bytecode of
+ * a hidden class, with fully unrolled loops and a statically bound activation function. Instances are obtained with
+ * {@link #of(MultiLayerPerceptron)} or {@link #of(LinearCombination)}, which fall back to an interpreted copy when the
+ * network is too large to be compiled into a method the JIT is willing to optimize.
+ */
+public abstract class CompiledMultivariateRealFunction implements MultivariateRealFunction {
+
+  // methods larger than this are not compiled by HotSpot (see -XX:HugeMethodLimit)
+  private static final int MAX_CODE_LENGTH = 8000;
+  private static final String CLASS_NAME = CompiledMultivariateRealFunction.class.getName().replace('.', '/');
+  private static final String ACTIVATION_FUNCTION_CLASS_NAME = MultiLayerPerceptron.ActivationFunction.class.getName()
+      .replace('.', '/');
+
+  private final int nOfInputs;
+  private final int nOfOutputs;
+  private final String name;
+
+  CompiledMultivariateRealFunction(int nOfInputs, int nOfOutputs, String name) {
+    this.nOfInputs = nOfInputs;
+    this.nOfOutputs = nOfOutputs;
+    this.name = name;
+  }
+
+  public static MultivariateRealFunction of(MultiLayerPerceptron mlp) {
+    int[] neurons = IntStream.range(0, mlp.nOfLayers()).map(mlp::sizeOfLayer).toArray();
+    double[] weights = mlp.getParams();
+    MultivariateRealFunction compiled = compile(
+        mlp.getActivationFunction(),
+        true,
+        weights,
+        neurons,
+        "compiled[%s]".formatted(mlp)
+    );
+    return compiled != null ? compiled : new MultiLayerPerceptron(mlp.getActivationFunction(), weights, neurons);
+  }
+
+  public static MultivariateRealFunction of(LinearCombination linearCombination) {
+    int nOfInputs = linearCombination.nOfInputs();
+    int nOfOutputs = linearCombination.nOfOutputs();
+    double[] params = linearCombination.getParams();
+    boolean zeroQ = params.length == nOfInputs * nOfOutputs;
+    // rearrange as a single layer network, i.e., with the bias before the weights of each output
+    double[] weights = new double[nOfOutputs * (nOfInputs + 1)];
+    double[][] m = new double[nOfOutputs][nOfInputs];
+    double[] q = new double[nOfOutputs];
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      System.arraycopy(params, i * nOfInputs, m[i], 0, nOfInputs);
+      q[i] = zeroQ ? 0d : params[nOfInputs * nOfOutputs + i];
+      weights[i * (nOfInputs + 1)] = q[i];
+      System.arraycopy(m[i], 0, weights, i * (nOfInputs + 1) + 1, nOfInputs);
+    }
+    MultivariateRealFunction compiled = compile(
+        MultiLayerPerceptron.ActivationFunction.IDENTITY,
+        false,
+        weights,
+        new int[]{nOfInputs, nOfOutputs},
+        "compiled[%s]".formatted(linearCombination)
+    );
+    return compiled != null ? compiled : (zeroQ ? new LinearCombination(m) : new LinearCombination(m, q));
+  }
+
+  private static MultivariateRealFunction compile(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      boolean activateInputs,
+      double[] weights,
+      int[] neurons,
+      String name
+  ) {
+    byte[] bytes;
+    try {
+      bytes = new Assembler().assemble(activationFunction, activateInputs, weights, neurons);
+    } catch (IOException e) {
+      // in-memory streams do not throw
+      throw new UncheckedIOException(e);
+    }
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+      return (MultivariateRealFunction) lookup.lookupClass()
+          .getDeclaredConstructor(int.class, int.class, String.class)
+          .newInstance(neurons[0], neurons[neurons.length - 1], name);
+    } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+      // e.g., a restricted runtime: the interpreter is always a valid alternative
+      return null;
+    }
+  }
+
+  static double relu(double x) {
+    return (x < 0) ? 0d : x;
+  }
+
+  static double sigmoid(double x) {
+    return 1d / (1d + Math.exp(-x));
+  }
+
+  abstract void kernel(double[] input, double[] output);
+
+  @Override
+  public double[] compute(double... input) {
+    return compute(input, new double[nOfOutputs]);
+  }
+
+  @Override
+  public final double[] compute(double[] input, double[] output) {
+    if (input.length != nOfInputs) {
+      throw new IllegalArgumentException(
+          "Wrong input size: %d expected, %d found".formatted(nOfInputs, input.length)
+      );
+    }
+    if (output.length != nOfOutputs) {
+      throw new IllegalArgumentException(
+          "Wrong output size: %d expected, %d found".formatted(nOfOutputs, output.length)
+      );
+    }
+    kernel(input, output);
+    return output;
+  }
+
+  @Override
+  public int nOfInputs() {
+    return nOfInputs;
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return nOfOutputs;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  // a minimal class file writer for a subclass with a constructor and a branch-free kernel method
+  private static class Assembler {
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+    private final DataOutputStream code = new DataOutputStream(codeBytes);
+    private int poolSize = 1;
+
+    byte[] assemble(
+        MultiLayerPerceptron.ActivationFunction activationFunction,
+        boolean activateInputs,
+        double[] weights,
+        int[] neurons
+    ) throws IOException {
+      int maxWidth = IntStream.of(neurons).max().orElse(0);
+      int[] bases = {3, 3 + 2 * maxWidth};
+      int activationRef = switch (activationFunction) {
+        case RELU -> methodRef(CLASS_NAME, "relu", "(D)D");
+        case SIGMOID -> methodRef(CLASS_NAME, "sigmoid", "(D)D");
+        case SIN -> methodRef("java/lang/Math", "sin", "(D)D");
+        case TANH -> methodRef("java/lang/Math", "tanh", "(D)D");
+        case SIGN -> methodRef("java/lang/Math", "signum", "(D)D");
+        case IDENTITY -> 0;
+        case FAST_TANH -> methodRef(ACTIVATION_FUNCTION_CLASS_NAME, "fastTanh", "(D)D");
+        case FAST_SIGMOID -> methodRef(ACTIVATION_FUNCTION_CLASS_NAME, "fastSigmoid", "(D)D");
+      };
+      // load (and activate) inputs into locals
+      for (int k = 0; k < neurons[0]; k = k + 1) {
+        code.writeByte(0x2b); // aload_1
+        pushInt(k);
+        code.writeByte(0x31); // daload
+        if (activateInputs) {
+          activate(activationRef);
+        }
+        doubleLocal(0x39, bases[0] + 2 * k); // dstore
+      }
+      int c = 0;
+      for (int i = 1; i < neurons.length; i = i + 1) {
+        boolean last = i == neurons.length - 1;
+        int previousBase = bases[(i - 1) % 2];
+        int currentBase = bases[i % 2];
+        for (int j = 0; j < neurons[i]; j = j + 1) {
+          if (last) {
+            code.writeByte(0x2c); // aload_2
+            pushInt(j);
+          }
+          ldcDouble(weights[c]); // the bias
+          for (int k = 0; k < neurons[i - 1]; k = k + 1) {
+            doubleLocal(0x18, previousBase + 2 * k); // dload
+            ldcDouble(weights[c + 1 + k]);
+            code.writeByte(0x6b); // dmul
+            code.writeByte(0x63); // dadd
+          }
+          activate(activationRef);
+          if (last) {
+            code.writeByte(0x52); // dastore
+          } else {
+            doubleLocal(0x39, currentBase + 2 * j); // dstore
+          }
+          c = c + neurons[i - 1] + 1;
+        }
+        if (codeBytes.size() > MAX_CODE_LENGTH) {
+          return null;
+        }
+      }
+      code.writeByte(0xb1); // return
+      if (codeBytes.size() > MAX_CODE_LENGTH) {
+        return null;
+      }
+      byte[] kernelCode = codeBytes.toByteArray();
+      // constructor, forwarding to super
+      int superInitRef = methodRef(CLASS_NAME, "<init>", "(IILjava/lang/String;)V");
+      byte[] initCode = {
+          0x2a, // aload_0
+          0x1b, // iload_1
+          0x1c, // iload_2
+          0x2d, // aload_3
+          (byte) 0xb7, (byte) (superInitRef >> 8), (byte) superInitRef, // invokespecial
+          (byte) 0xb1 // return
+      };
+      int thisClass = classRef(CLASS_NAME + "$Kernel");
+      int superClass = classRef(CLASS_NAME);
+      int codeName = utf8("Code");
+      int initName = utf8("<init>");
+      int initDescriptor = utf8("(IILjava/lang/String;)V");
+      int kernelName = utf8("kernel");
+      int kernelDescriptor = utf8("([D[D)V");
+      ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(classBytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0); // minor version
+      out.writeShort(61); // major version: branch-free code needs no stack map frames
+      out.writeShort(poolSize);
+      pool.flush();
+      poolBytes.writeTo(out);
+      out.writeShort(0x1030); // final, super, synthetic
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(0); // interfaces
+      out.writeShort(0); // fields
+      out.writeShort(2); // methods
+      writeMethod(out, initName, initDescriptor, codeName, 4, 4, initCode);
+      writeMethod(out, kernelName, kernelDescriptor, codeName, 8, bases[1] + 2 * maxWidth, kernelCode);
+      out.writeShort(0); // attributes
+      out.flush();
+      return classBytes.toByteArray();
+    }
+
+    private void activate(int activationRef) throws IOException {
+      if (activationRef != 0) {
+        code.writeByte(0xb8); // invokestatic
+        code.writeShort(activationRef);
+      }
+    }
+
+    private int classRef(String internalName) throws IOException {
+      String key = "C" + internalName;
+      Integer index = entries.get(key);
+      if (index == null) {
+        int nameIndex = utf8(internalName);
+        pool.writeByte(7);
+        pool.writeShort(nameIndex);
+        index = poolSize;
+        poolSize = poolSize + 1;
+        entries.put(key, index);
+      }
+      return index;
+    }
+
+    private void doubleLocal(int opcode, int index) throws IOException {
+      if (index <= 0xff) {
+        code.writeByte(opcode);
+        code.writeByte(index);
+      } else {
+        code.writeByte(0xc4); // wide
+        code.writeByte(opcode);
+        code.writeShort(index);
+      }
+    }
+
+    private void ldcDouble(double value) throws IOException {
+      String key = "D" + Double.doubleToRawLongBits(value);
+      Integer index = entries.get(key);
+      if (index == null) {
+        pool.writeByte(6);
+        pool.writeDouble(value);
+        index = poolSize;
+        poolSize = poolSize + 2; // doubles take two entries
+        entries.put(key, index);
+      }
+      code.writeByte(0x14); // ldc2_w
+      code.writeShort(index);
+    }
+
+    private int methodRef(String owner, String name, String descriptor) throws IOException {
+      String key = "M" + owner + "." + name + descriptor;
+      Integer index = entries.get(key);
+      if (index == null) {
+        int classIndex = classRef(owner);
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        pool.writeByte(12);
+        pool.writeShort(nameIndex);
+        pool.writeShort(descriptorIndex);
+        int nameAndTypeIndex = poolSize;
+        poolSize = poolSize + 1;
+        pool.writeByte(10);
+        pool.writeShort(classIndex);
+        pool.writeShort(nameAndTypeIndex);
+        index = poolSize;
+        poolSize = poolSize + 1;
+        entries.put(key, index);
+      }
+      return index;
+    }
+
+    private void pushInt(int value) throws IOException {
+      if (value <= 5) {
+        code.writeByte(0x03 + value); // iconst_<value>
+      } else if (value <= Byte.MAX_VALUE) {
+        code.writeByte(0x10); // bipush
+        code.writeByte(value);
+      } else {
+        code.writeByte(0x11); // sipush
+        code.writeShort(value);
+      }
+    }
+
+    private int utf8(String s) throws IOException {
+      String key = "U" + s;
+      Integer index = entries.get(key);
+      if (index == null) {
+        pool.writeByte(1);
+        pool.writeUTF(s);
+        index = poolSize;
+        poolSize = poolSize + 1;
+        entries.put(key, index);
+      }
+      return index;
+    }
+
+    private void writeMethod(
+        DataOutputStream out,
+        int nameIndex,
+        int descriptorIndex,
+        int codeNameIndex,
+        int maxStack,
+        int maxLocals,
+        byte[] code
+    ) throws IOException {
+      out.writeShort(0); // package-private
+      out.writeShort(nameIndex);
+      out.writeShort(descriptorIndex);
+      out.writeShort(1); // attributes
+      out.writeShort(codeNameIndex);
+      out.writeInt(12 + code.length);
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(code.length);
+      out.write(code);
+      out.writeShort(0); // exception table
+      out.writeShort(0); // attributes
+    }
+  }
+}
@@ -23,8 +23,7 @@ package io.github.ericmedvet.jsdynsym.core.numerical.ann;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<DelayedRecurrentNetwork.State>, NumericalParametrized<DelayedRecurrentNetwork> {
   private final MultiLayerPerceptron.ActivationFunction activationFunction;
@@ -34,10 +33,27 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
   private final DoubleRange timeRange;
   private final double threshold;
   private final double timeResolution;
-  private final Map<Coord, Connection> connections;
+  private final boolean sparse;
+  private final boolean expiringPulses;
+  private final int nOfTicks;
+  private final double[] weights;
+  private final double[] delays;
+  private final double[] durations;
   private final double[] biases;
   private final double[] outValues;
-  private final double[][] inValues;
+  // pulses are stored as start/end increments on a circular time wheel: a tick value is the sum of the increments up
+  // to it, kept in inValues for the current tick
+  private final double[] wheel;
+  private final double[] wheelSums;
+  private final double[] inValues;
+  // connections actually used in step, in CSR form (all of them, if not sparse)
+  private final int[] rowStarts;
+  private int[] toIndexes;
+  private double[] activeWeights;
+  private int[] delayTicks;
+  private int[] durationTicks;
+  private int currentTI;
+  private long lastTick;
 
   public DelayedRecurrentNetwork(
       MultiLayerPerceptron.ActivationFunction activationFunction,
@@ -46,7 +62,9 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
       int nOfInnerNeurons,
       DoubleRange timeRange,
       double threshold,
-      double timeResolution
+      double timeResolution,
+      boolean sparse,
+      boolean expiringPulses
   ) {
     this.activationFunction = activationFunction;
     this.nOfInputs = nOfInputs;
@@ -55,17 +73,62 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
     this.timeRange = timeRange;
     this.threshold = threshold;
     this.timeResolution = timeResolution;
-    connections = new HashMap<>();
+    this.sparse = sparse;
+    this.expiringPulses = expiringPulses;
     int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    if (expiringPulses) {
+      // a pulse may start up to max ticks ahead and last up to max ticks: its end must not wrap onto the current tick
+      nOfTicks = 2 * (int) Math.ceil(timeRange.max() / timeResolution) + 2;
+    } else {
+      nOfTicks = (int) Math.ceil(timeRange.max() / timeResolution);
+    }
+    weights = new double[nOfNeurons * nOfNeurons];
+    delays = new double[nOfNeurons * nOfNeurons];
+    durations = new double[nOfNeurons * nOfNeurons];
     biases = new double[nOfNeurons];
     outValues = new double[nOfNeurons];
-    inValues = new double[nOfNeurons][];
-    reset();
+    wheel = new double[nOfNeurons * nOfTicks];
+    wheelSums = new double[nOfNeurons];
+    inValues = new double[nOfNeurons];
+    rowStarts = new int[nOfNeurons + 1];
+    lastTick = Long.MIN_VALUE;
+    compileConnections();
   }
 
-  private record Connection(double weight, double delay, double duration) {}
+  public DelayedRecurrentNetwork(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInputs,
+      int nOfOutputs,
+      int nOfInnerNeurons,
+      DoubleRange timeRange,
+      double threshold,
+      double timeResolution,
+      boolean sparse
+  ) {
+    this(
+        activationFunction,
+        nOfInputs,
+        nOfOutputs,
+        nOfInnerNeurons,
+        timeRange,
+        threshold,
+        timeResolution,
+        sparse,
+        false
+    );
+  }
 
-  private record Coord(int fromId, int toId) {}
+  public DelayedRecurrentNetwork(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInputs,
+      int nOfOutputs,
+      int nOfInnerNeurons,
+      DoubleRange timeRange,
+      double threshold,
+      double timeResolution
+  ) {
+    this(activationFunction, nOfInputs, nOfOutputs, nOfInnerNeurons, timeRange, threshold, timeResolution, false);
+  }
 
   public record State(double[] outValues) {}
 
@@ -78,14 +141,11 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
       params[c] = biases[i];
       c = c + 1;
     }
-    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        Connection connection = connections.get(new Coord(fromI, toI));
-        params[c] = connection.weight();
-        params[c + 1] = connection.delay();
-        params[c + 2] = connection.duration();
-        c = c + 3;
-      }
+    for (int ci = 0; ci < weights.length; ci = ci + 1) {
+      params[c] = weights[ci];
+      params[c + 1] = delays[ci];
+      params[c + 2] = durations[ci];
+      c = c + 3;
     }
     return params;
   }
@@ -104,12 +164,52 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
       biases[i] = params[c];
       c = c + 1;
     }
+    for (int ci = 0; ci < weights.length; ci = ci + 1) {
+      weights[ci] = params[c];
+      delays[ci] = params[c + 1];
+      durations[ci] = params[c + 2];
+      c = c + 3;
+    }
+    compileConnections();
+  }
+
+  private void compileConnections() {
+    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    // with bounded activation functions, connections with small weights can never produce a pulse
+    DoubleRange domain = activationFunction.getDomain();
+    double maxAbsOutValue = Math.max(Math.abs(domain.min()), Math.abs(domain.max()));
+    int nOfActive = 0;
+    for (int ci = 0; ci < weights.length; ci = ci + 1) {
+      if (isActive(ci, maxAbsOutValue)) {
+        nOfActive = nOfActive + 1;
+      }
+    }
+    toIndexes = new int[nOfActive];
+    activeWeights = new double[nOfActive];
+    delayTicks = new int[nOfActive];
+    durationTicks = new int[nOfActive];
+    int c = 0;
     for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
+      rowStarts[fromI] = c;
       for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        connections.put(new Coord(fromI, toI), new Connection(params[c], params[c + 1], params[c + 2]));
-        c = c + 3;
+        int ci = fromI * nOfNeurons + toI;
+        if (isActive(ci, maxAbsOutValue)) {
+          double delay = timeRange.denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(delays[ci]));
+          double duration = new DoubleRange(delay, timeRange.max())
+              .denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(durations[ci]));
+          toIndexes[c] = toI;
+          activeWeights[c] = weights[ci];
+          delayTicks[c] = (int) Math.floor(delay / timeResolution);
+          durationTicks[c] = (int) Math.floor(duration / timeResolution);
+          c = c + 1;
+        }
       }
     }
+    rowStarts[nOfNeurons] = c;
+  }
+
+  private boolean isActive(int connectionIndex, double maxAbsOutValue) {
+    return !sparse || !(Math.abs(weights[connectionIndex]) * maxAbsOutValue <= threshold);
   }
 
   @Override
@@ -119,58 +219,135 @@ public class DelayedRecurrentNetwork implements NumericalDynamicalSystem<Delayed
 
   @Override
   public void reset() {
-    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
-    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      inValues[fromI] = new double[(int) Math.ceil(timeRange.max() / timeResolution)];
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        connections.put(new Coord(fromI, toI), new Connection(0, 0, 0));
-      }
-    }
+    Arrays.fill(wheel, 0d);
+    Arrays.fill(wheelSums, 0d);
+    Arrays.fill(inValues, 0d);
+    Arrays.fill(outValues, 0d);
+    currentTI = 0;
+    lastTick = Long.MIN_VALUE;
   }
 
   @Override
   public double[] step(double t, double[] input) {
-    // compute current time index
-    int currentTI = timeIndex(t);
+    return step(t, input, new double[nOfOutputs]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double[] output) {
+    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    if (expiringPulses) {
+      consumeTicks((long) Math.floor(t / timeResolution));
+    } else {
+      moveTo(timeIndex(t));
+    }
     // add inputs
     for (int i = 0; i < nOfInputs; i = i + 1) {
       if (Math.abs(input[i]) > threshold) {
-        inValues[i][currentTI] = inValues[i][currentTI] + input[i];
+        addPulse(i, 0, 1, input[i]);
       }
     }
     // compute neuron values
-    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
     for (int i = 0; i < nOfNeurons; i = i + 1) {
-      outValues[i] = activationFunction.applyAsDouble(biases[i] + inValues[i][currentTI]);
+      outValues[i] = activationFunction.applyAsDouble(biases[i] + inValues[i]);
     }
     // generate new pulses
     for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        Connection connection = connections.get(new Coord(fromI, toI));
-        double pulseValue = outValues[fromI] * connection.weight();
+      double outValue = outValues[fromI];
+      for (int c = rowStarts[fromI]; c < rowStarts[fromI + 1]; c = c + 1) {
+        double pulseValue = outValue * activeWeights[c];
         if (Math.abs(pulseValue) > threshold) {
-          double delay = timeRange.denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(connection.delay()));
-          double duration = new DoubleRange(delay, timeRange.max())
-              .denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(connection.duration()));
-          for (double futureT = t + delay; futureT <= t + delay + duration; futureT = futureT + timeResolution) {
-            int futureTI = timeIndex(futureT);
-            inValues[toI][futureTI] = inValues[toI][futureTI] + pulseValue;
-          }
+          addPulse(toIndexes[c], delayTicks[c], durationTicks[c] + 1, pulseValue);
         }
       }
     }
-    // clear previous index
-    int previousTI = currentTI - 1;
-    if (previousTI < 0) {
-      previousTI = timeIndex(timeRange.max());
-    }
-    for (int i = 0; i < nOfInputs; i = i + 1) {
-      inValues[i][previousTI] = 0;
+    // clear previous index of input neurons, by removing its value only from that tick
+    if (!expiringPulses) {
+      int previousTI = (currentTI + nOfTicks - 1) % nOfTicks;
+      for (int i = 0; i < nOfInputs; i = i + 1) {
+        double previousValue = (currentTI == 0) ? wheelSums[i] : (inValues[i] - wheel[i * nOfTicks + currentTI]);
+        addIncrement(i, previousTI, -previousValue);
+        if (previousTI + 1 < nOfTicks) {
+          addIncrement(i, previousTI + 1, previousValue);
+        }
+      }
     }
     // read outputs
-    double[] outputs = new double[nOfOutputs];
-    System.arraycopy(outValues, nOfInputs + nOfInnerNeurons, outputs, 0, outputs.length);
-    return outputs;
+    System.arraycopy(outValues, nOfInputs + nOfInnerNeurons, output, 0, nOfOutputs);
+    return output;
+  }
+
+  private void addIncrement(int i, int ti, double value) {
+    wheel[i * nOfTicks + ti] = wheel[i * nOfTicks + ti] + value;
+    wheelSums[i] = wheelSums[i] + value;
+    if (ti <= currentTI) {
+      inValues[i] = inValues[i] + value;
+    }
+  }
+
+  private void addPulse(int i, int delayTicks, int pulseTicks, double value) {
+    if (expiringPulses) {
+      if (delayTicks == 0) {
+        inValues[i] = inValues[i] + value;
+      } else {
+        int startTI = Math.floorMod(lastTick + delayTicks, nOfTicks);
+        wheel[i * nOfTicks + startTI] = wheel[i * nOfTicks + startTI] + value;
+      }
+      int endTI = Math.floorMod(lastTick + delayTicks + pulseTicks, nOfTicks);
+      wheel[i * nOfTicks + endTI] = wheel[i * nOfTicks + endTI] - value;
+      return;
+    }
+    // pulses longer than the wheel add up on the ticks they cover more than once
+    for (int q = 0; q < pulseTicks / nOfTicks; q = q + 1) {
+      addIncrement(i, 0, value);
+    }
+    int remainingTicks = pulseTicks % nOfTicks;
+    if (remainingTicks > 0) {
+      int startTI = (currentTI + delayTicks) % nOfTicks;
+      int endTI = startTI + remainingTicks;
+      addIncrement(i, startTI, value);
+      if (endTI < nOfTicks) {
+        addIncrement(i, endTI, -value);
+      } else if (endTI > nOfTicks) {
+        addIncrement(i, 0, value);
+        addIncrement(i, endTI - nOfTicks, -value);
+      }
+    }
+  }
+
+  private void consumeTicks(long tick) {
+    if (lastTick == Long.MIN_VALUE) {
+      lastTick = tick - 1;
+    }
+    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    // if more than a wheel of ticks elapsed, every tick is consumed once
+    long firstTick = Math.max(lastTick + 1, tick - nOfTicks + 1);
+    for (long consumedTick = firstTick; consumedTick <= tick; consumedTick = consumedTick + 1) {
+      int ti = Math.floorMod(consumedTick, nOfTicks);
+      for (int i = 0; i < nOfNeurons; i = i + 1) {
+        inValues[i] = inValues[i] + wheel[i * nOfTicks + ti];
+        wheel[i * nOfTicks + ti] = 0;
+      }
+    }
+    lastTick = Math.max(lastTick, tick);
+  }
+
+  private void moveTo(int ti) {
+    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    if (ti > currentTI) {
+      for (int i = 0; i < nOfNeurons; i = i + 1) {
+        for (int k = currentTI + 1; k <= ti; k = k + 1) {
+          inValues[i] = inValues[i] + wheel[i * nOfTicks + k];
+        }
+      }
+    } else if (ti < currentTI) {
+      for (int i = 0; i < nOfNeurons; i = i + 1) {
+        inValues[i] = 0;
+        for (int k = 0; k <= ti; k = k + 1) {
+          inValues[i] = inValues[i] + wheel[i * nOfTicks + k];
+        }
+      }
+    }
+    currentTI = ti;
   }
 
   @Override
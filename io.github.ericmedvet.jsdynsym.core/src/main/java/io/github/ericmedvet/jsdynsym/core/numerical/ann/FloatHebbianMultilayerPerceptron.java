@@ -0,0 +1,285 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.numerical.FrozenableNumericalDynamicalSystem;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalStatelessSystem;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalTimeInvariantDynamicalSystem;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A {@link HebbianMultilayerPerceptron} storing coefficients, weights, and activations in single precision. Params and
+ * the state are exchanged as {@code double} values.
+ */
+public class FloatHebbianMultilayerPerceptron implements NumericalTimeInvariantDynamicalSystem<HebbianMultilayerPerceptron.State>, NumericalParametrized<FloatHebbianMultilayerPerceptron>, FrozenableNumericalDynamicalSystem<HebbianMultilayerPerceptron.State> {
+  private final MultiLayerPerceptron.ActivationFunction activationFunction;
+  private final float[] as;
+  private final float[] bs;
+  private final float[] cs;
+  private final float[] ds;
+  private final float[] initialWeights;
+  private final int[] neurons;
+  private final float learningRate;
+  private final DoubleRange initialWeightRange;
+  private final HebbianMultilayerPerceptron.ParametrizationType parametrizationType;
+  private final HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType;
+  private final RandomGenerator randomGenerator;
+  private final float[] weights;
+  private final int[] activationOffsets;
+  private float[] activations;
+  private float[] previousActivations;
+  private HebbianMultilayerPerceptron.State state;
+
+  public FloatHebbianMultilayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      double[][][] as,
+      double[][][] bs,
+      double[][][] cs,
+      double[][][] ds,
+      double[][][] initialWeights,
+      int[] neurons,
+      double learningRate,
+      DoubleRange initialWeightRange,
+      RandomGenerator randomGenerator,
+      HebbianMultilayerPerceptron.ParametrizationType parametrizationType,
+      HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType
+
+  ) {
+    this.activationFunction = activationFunction;
+    this.as = FloatMultiLayerPerceptron.toFloats(HebbianUtils.flat(parametrizationType, as, neurons));
+    this.bs = FloatMultiLayerPerceptron.toFloats(HebbianUtils.flat(parametrizationType, bs, neurons));
+    this.cs = FloatMultiLayerPerceptron.toFloats(HebbianUtils.flat(parametrizationType, cs, neurons));
+    this.ds = FloatMultiLayerPerceptron.toFloats(HebbianUtils.flat(parametrizationType, ds, neurons));
+    this.initialWeights = FloatMultiLayerPerceptron.toFloats(MultiLayerPerceptron.flat(initialWeights, neurons));
+    this.neurons = neurons;
+    this.learningRate = (float) learningRate;
+    this.initialWeightRange = initialWeightRange;
+    this.randomGenerator = randomGenerator;
+    this.parametrizationType = parametrizationType;
+    this.weightInitializationType = weightInitializationType;
+    weights = new float[this.initialWeights.length];
+    activationOffsets = HebbianUtils.activationOffsets(neurons);
+    activations = new float[activationOffsets[neurons.length]];
+    previousActivations = new float[activationOffsets[neurons.length]];
+    initialize();
+  }
+
+  public FloatHebbianMultilayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInput,
+      int[] innerNeurons,
+      int nOfOutput,
+      double[] params,
+      double learningRate,
+      DoubleRange initialWeightRange,
+      RandomGenerator randomGenerator,
+      HebbianMultilayerPerceptron.ParametrizationType parametrizationType,
+      HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType
+  ) {
+    this(
+        activationFunction,
+        nOfInput,
+        innerNeurons,
+        nOfOutput,
+        learningRate,
+        initialWeightRange,
+        randomGenerator,
+        parametrizationType,
+        weightInitializationType
+    );
+    assign(params);
+  }
+
+  public FloatHebbianMultilayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInput,
+      int[] innerNeurons,
+      int nOfOutput,
+      double learningRate,
+      DoubleRange initialWeightRange,
+      RandomGenerator randomGenerator,
+      HebbianMultilayerPerceptron.ParametrizationType parametrizationType,
+      HebbianMultilayerPerceptron.WeightInitializationType weightInitializationType
+  ) {
+    this(
+        activationFunction,
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput),
+        learningRate,
+        initialWeightRange,
+        randomGenerator,
+        parametrizationType,
+        weightInitializationType
+    );
+  }
+
+  private static double[] concat(float[]... arrays) {
+    int totalLength = 0;
+    for (float[] array : arrays) {
+      totalLength += array.length;
+    }
+    double[] concatenated = new double[totalLength];
+    int offset = 0;
+    for (float[] array : arrays) {
+      for (int i = 0; i < array.length; i++) {
+        concatenated[offset + i] = array[i];
+      }
+      offset += array.length;
+    }
+    return concatenated;
+  }
+
+  @Override
+  public double[] step(double[] input) {
+    return step(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double[] input, double[] output) {
+    if (input.length != neurons[0]) {
+      throw new IllegalArgumentException(
+          String.format("Expected input length is %d: found %d", neurons[0], input.length)
+      );
+    }
+    // swap activations: the update of weights uses those of the previous step
+    float[] tmp = previousActivations;
+    previousActivations = activations;
+    activations = tmp;
+    for (int k = 0; k < neurons[0]; k++) {
+      activations[k] = (float) activationFunction.applyAsDouble(input[k]);
+    }
+    // update weights and compute output in one pass
+    int c = 0;
+    int stride = HebbianUtils.coefficientsStride(parametrizationType);
+    for (int i = 1; i < neurons.length; i++) {
+      int preOffset = activationOffsets[i - 1];
+      int postOffset = activationOffsets[i];
+      for (int j = 0; j < neurons[i]; j++) {
+        float postActivation = previousActivations[postOffset + j];
+        int base = HebbianUtils.coefficientsBase(parametrizationType, i - 1, postOffset - neurons[0] + j, c);
+        float sum = weights[c]; // set the bias
+        for (int k = 1; k < neurons[i - 1] + 1; k++) {
+          float preActivation = previousActivations[preOffset + k - 1];
+          int p = base + k * stride;
+          weights[c + k] += learningRate * (as[p] * preActivation + bs[p] * postActivation + cs[p] * preActivation * postActivation + ds[p]);
+          sum = sum + activations[preOffset + k - 1] * weights[c + k];
+        }
+        activations[postOffset + j] = (float) activationFunction.applyAsDouble(sum);
+        c = c + neurons[i - 1] + 1;
+      }
+    }
+    state = null;
+    for (int j = 0; j < nOfOutputs(); j++) {
+      output[j] = activations[activationOffsets[neurons.length - 1] + j];
+    }
+    return output;
+  }
+
+  @Override
+  public int nOfInputs() {
+    return neurons[0];
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return neurons[neurons.length - 1];
+  }
+
+  @Override
+  public HebbianMultilayerPerceptron.State getState() {
+    if (state == null) {
+      state = new HebbianMultilayerPerceptron.State(
+          MultiLayerPerceptron.unflat(FloatMultiLayerPerceptron.toDoubles(weights), neurons),
+          HebbianUtils.layerActivations(FloatMultiLayerPerceptron.toDoubles(activations), activationOffsets)
+      );
+    }
+    return state;
+  }
+
+  @Override
+  public void reset() {
+    initialize();
+  }
+
+  // not overridable, as also called by the constructors
+  private void initialize() {
+    if (weightInitializationType.equals(HebbianMultilayerPerceptron.WeightInitializationType.RANDOM)) {
+      for (int c = 0; c < weights.length; c++) {
+        weights[c] = (float) initialWeightRange.denormalize(randomGenerator.nextDouble());
+      }
+    } else {
+      System.arraycopy(initialWeights, 0, weights, 0, weights.length);
+    }
+    Arrays.fill(activations, 0f);
+    Arrays.fill(previousActivations, 0f);
+    state = null;
+  }
+
+  @Override
+  public double[] getParams() {
+    if (weightInitializationType.equals(HebbianMultilayerPerceptron.WeightInitializationType.PARAMS)) {
+      return concat(as, bs, cs, ds, initialWeights);
+    } else {
+      return concat(as, bs, cs, ds);
+    }
+  }
+
+  @Override
+  public void setParams(double[] params) {
+    assign(params);
+  }
+
+  // not overridable, as also called by a constructor
+  private void assign(double[] params) {
+    int n = HebbianUtils.countParams(parametrizationType, neurons);
+    HebbianUtils.checkParams(params, n, initialWeights.length, weightInitializationType);
+    set(params, 0, as);
+    set(params, n, bs);
+    set(params, 2 * n, cs);
+    set(params, 3 * n, ds);
+    if (weightInitializationType.equals(HebbianMultilayerPerceptron.WeightInitializationType.PARAMS)) {
+      set(params, 4 * n, initialWeights);
+    }
+    initialize();
+  }
+
+  private static void set(double[] params, int from, float[] coefficients) {
+    for (int i = 0; i < coefficients.length; i++) {
+      coefficients[i] = (float) params[from + i];
+    }
+  }
+
+  @Override
+  public String toString() {
+    return HebbianUtils.toString("FloatHebbianMLP", activationFunction, neurons);
+  }
+
+  @Override
+  public NumericalStatelessSystem stateless() {
+    return new FloatMultiLayerPerceptron(activationFunction, Arrays.copyOf(weights, weights.length), neurons);
+  }
+}
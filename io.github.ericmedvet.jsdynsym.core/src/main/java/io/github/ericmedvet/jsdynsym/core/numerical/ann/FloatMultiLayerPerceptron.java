@@ -0,0 +1,199 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.numerical.LinearAlgebraUtils;
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import io.github.ericmedvet.jsdynsym.core.numerical.ScratchBuffers;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link MultiLayerPerceptron} storing weights and computing activations in single precision. Params are exchanged
+ * as {@code double[]}, as for the other {@link NumericalParametrized}, and are rounded to the nearest float when set.
+ */
+public class FloatMultiLayerPerceptron implements MultivariateRealFunction, NumericalParametrized<FloatMultiLayerPerceptron> {
+
+  private final MultiLayerPerceptron.ActivationFunction activationFunction;
+  private final float[] weights;
+  private final int[] neurons;
+  private final int maxLayerSize;
+
+  public FloatMultiLayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      float[] weights,
+      int[] neurons
+  ) {
+    if (weights.length != MultiLayerPerceptron.countWeights(neurons)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Wrong number of weights: %d expected, %d found",
+              MultiLayerPerceptron.countWeights(neurons),
+              weights.length
+          )
+      );
+    }
+    this.activationFunction = activationFunction;
+    this.weights = Arrays.copyOf(weights, weights.length);
+    this.neurons = Arrays.copyOf(neurons, neurons.length);
+    maxLayerSize = Arrays.stream(neurons).max().orElse(0);
+  }
+
+  public FloatMultiLayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      double[] weights,
+      int[] neurons
+  ) {
+    this(activationFunction, toFloats(weights), neurons);
+  }
+
+  public FloatMultiLayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInput,
+      int[] innerNeurons,
+      int nOfOutput,
+      double[] weights
+  ) {
+    this(activationFunction, weights, MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput));
+  }
+
+  public FloatMultiLayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInput,
+      int[] innerNeurons,
+      int nOfOutput
+  ) {
+    this(
+        activationFunction,
+        new float[MultiLayerPerceptron.countWeights(nOfInput, innerNeurons, nOfOutput)],
+        MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)
+    );
+  }
+
+  static double[] toDoubles(float[] values) {
+    double[] doubles = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      doubles[i] = values[i];
+    }
+    return doubles;
+  }
+
+  static float[] toFloats(double[] values) {
+    float[] floats = new float[values.length];
+    for (int i = 0; i < values.length; i++) {
+      floats[i] = (float) values[i];
+    }
+    return floats;
+  }
+
+  @Override
+  public double[] compute(double... input) {
+    return compute(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] compute(double[] input, double[] output) {
+    if (input.length != neurons[0]) {
+      throw new IllegalArgumentException(
+          String.format("Expected input length is %d: found %d", neurons[0], input.length)
+      );
+    }
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(
+          String.format("Expected output length is %d: found %d", neurons[neurons.length - 1], output.length)
+      );
+    }
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    float[] first = scratchBuffers.floats(maxLayerSize);
+    float[] second = scratchBuffers.floats(maxLayerSize);
+    try {
+      float[] previous = first;
+      float[] current = second;
+      for (int k = 0; k < neurons[0]; k++) {
+        previous[k] = (float) activationFunction.applyAsDouble(input[k]);
+      }
+      int c = 0;
+      for (int i = 1; i < neurons.length; i++) {
+        LinearAlgebraUtils.biasedProduct(weights, c, previous, neurons[i - 1], activationFunction, current, neurons[i]);
+        c = c + neurons[i] * (neurons[i - 1] + 1);
+        float[] tmp = previous;
+        previous = current;
+        current = tmp;
+      }
+      for (int j = 0; j < output.length; j++) {
+        output[j] = previous[j];
+      }
+      return output;
+    } finally {
+      scratchBuffers.release(first);
+      scratchBuffers.release(second);
+    }
+  }
+
+  public MultiLayerPerceptron.ActivationFunction getActivationFunction() {
+    return activationFunction;
+  }
+
+  @Override
+  public double[] getParams() {
+    return toDoubles(weights);
+  }
+
+  @Override
+  public void setParams(double[] params) {
+    if (params.length != weights.length) {
+      throw new IllegalArgumentException(
+          String.format("Wrong number of params: %d expected, %d found", weights.length, params.length)
+      );
+    }
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = (float) params[i];
+    }
+  }
+
+  public int sizeOfLayer(int indexOfLayer) {
+    return neurons[indexOfLayer];
+  }
+
+  @Override
+  public int nOfInputs() {
+    return sizeOfLayer(0);
+  }
+
+  public int nOfLayers() {
+    return neurons.length;
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return sizeOfLayer(neurons.length - 1);
+  }
+
+  @Override
+  public String toString() {
+    return "FloatMLP-%s-%s"
+        .formatted(
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">"))
+        );
+  }
+}
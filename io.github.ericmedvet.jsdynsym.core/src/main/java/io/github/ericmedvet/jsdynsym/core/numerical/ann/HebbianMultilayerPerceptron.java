@@ -26,22 +26,24 @@ import io.github.ericmedvet.jsdynsym.core.numerical.NumericalStatelessSystem;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalTimeInvariantDynamicalSystem;
 import java.util.Arrays;
 import java.util.random.RandomGenerator;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynamicalSystem<HebbianMultilayerPerceptron.State>, NumericalParametrized<HebbianMultilayerPerceptron>, FrozenableNumericalDynamicalSystem<HebbianMultilayerPerceptron.State> {
   private final MultiLayerPerceptron.ActivationFunction activationFunction;
-  private final double[][][] as;
-  private final double[][][] bs;
-  private final double[][][] cs;
-  private final double[][][] ds;
-  private final double[][][] initialWeights;
+  private final double[] as;
+  private final double[] bs;
+  private final double[] cs;
+  private final double[] ds;
+  private final double[] initialWeights;
   private final int[] neurons;
   private final double learningRate;
   private final DoubleRange initialWeightRange;
   private final ParametrizationType parametrizationType;
   private final WeightInitializationType weightInitializationType;
   private final RandomGenerator randomGenerator;
+  private final double[] weights;
+  private final int[] activationOffsets;
+  private double[] activations;
+  private double[] previousActivations;
   private State state;
 
   public HebbianMultilayerPerceptron(
@@ -60,17 +62,21 @@ public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynami
 
   ) {
     this.activationFunction = activationFunction;
-    this.as = as;
-    this.bs = bs;
-    this.cs = cs;
-    this.ds = ds;
-    this.initialWeights = initialWeights;
+    this.as = HebbianUtils.flat(parametrizationType, as, neurons);
+    this.bs = HebbianUtils.flat(parametrizationType, bs, neurons);
+    this.cs = HebbianUtils.flat(parametrizationType, cs, neurons);
+    this.ds = HebbianUtils.flat(parametrizationType, ds, neurons);
+    this.initialWeights = MultiLayerPerceptron.flat(initialWeights, neurons);
     this.neurons = neurons;
     this.learningRate = learningRate;
     this.initialWeightRange = initialWeightRange;
     this.randomGenerator = randomGenerator;
     this.parametrizationType = parametrizationType;
     this.weightInitializationType = weightInitializationType;
+    weights = new double[this.initialWeights.length];
+    activationOffsets = HebbianUtils.activationOffsets(neurons);
+    activations = new double[activationOffsets[neurons.length]];
+    previousActivations = new double[activationOffsets[neurons.length]];
     reset();
   }
 
@@ -113,11 +119,11 @@ public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynami
   ) {
     this(
         activationFunction,
-        emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
-        emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
-        emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
-        emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
-        emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        HebbianUtils.emptyArray(MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput)),
         MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput),
         learningRate,
         initialWeightRange,
@@ -127,81 +133,6 @@ public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynami
     );
   }
 
-  private static int countParams(ParametrizationType parametrizationType, int[] neurons) {
-    return switch (parametrizationType) {
-      case NETWORK -> 1;
-      case LAYER -> (neurons.length - 1);
-      case NEURON -> Arrays.stream(neurons).skip(1).sum();
-      case SYNAPSE -> MultiLayerPerceptron.countWeights(neurons);
-    };
-  }
-
-  private static double[][][] emptyArray(int[] neurons) {
-    return MultiLayerPerceptron.unflat(new double[MultiLayerPerceptron.countWeights(neurons)], neurons);
-  }
-
-  private static double[][][] unflat(ParametrizationType parametrizationType, double[] params, int[] neurons) {
-    if (params.length != countParams(parametrizationType, neurons)) {
-      throw new IllegalArgumentException(
-          String.format(
-              "Wrong number of params: %d expected, %d found",
-              countParams(parametrizationType, neurons),
-              params.length
-          )
-      );
-    }
-    return switch (parametrizationType) {
-      case NETWORK ->
-        MultiLayerPerceptron.unflat(nCopies(MultiLayerPerceptron.countWeights(neurons), params[0]), neurons);
-      case LAYER -> IntStream.range(1, neurons.length)
-          .mapToObj(
-              li -> IntStream.range(0, neurons[li])
-                  .mapToObj(ni -> nCopies(neurons[li - 1] + 1, params[li - 1]))
-                  .toArray(double[][]::new)
-          )
-          .toArray(double[][][]::new);
-      case NEURON -> {
-        double[][][] unflat = emptyArray(neurons);
-        int c = 0;
-        for (double[][] layer : unflat) {
-          for (double[] neuron : layer) {
-            Arrays.fill(neuron, params[c++]);
-          }
-        }
-        yield unflat;
-      }
-      case SYNAPSE -> MultiLayerPerceptron.unflat(params, neurons);
-    };
-  }
-
-  private static double[] nCopies(int n, double value) {
-    double[] values = new double[n];
-    Arrays.fill(values, value);
-    return values;
-  }
-
-  private static double[] flat(ParametrizationType parametrizationType, double[][][] params, int[] neurons) {
-    return switch (parametrizationType) {
-      case NETWORK -> new double[]{params[0][0][0]};
-      case LAYER -> Arrays.stream(params)
-          .mapToDouble(l -> l[0][0])
-          .toArray();
-      case NEURON -> Arrays.stream(params)
-          .flatMap(l -> Arrays.stream(l).mapToDouble(n -> n[0]).boxed())
-          .mapToDouble(v -> v)
-          .toArray();
-      case SYNAPSE -> MultiLayerPerceptron.flat(params, neurons);
-    };
-  }
-
-  private static void set(double[][][] src, double[][][] dst) {
-    for (int l = 0; l < src.length; l++) {
-      for (int s = 0; s < src[l].length; s++) {
-        System.arraycopy(src[l][s], 0, dst[l][s], 0, src[l][s].length);
-      }
-    }
-  }
-
   private static double[] concat(double[]... arrays) {
     int totalLength = 0;
     for (double[] array : arrays) {
@@ -218,38 +149,46 @@ public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynami
 
   @Override
   public double[] step(double[] input) {
+    return step(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] step(double[] input, double[] output) {
     if (input.length != neurons[0]) {
       throw new IllegalArgumentException(
           String.format("Expected input length is %d: found %d", neurons[0], input.length)
       );
     }
-    // update weights
-    double[][][] newWeights = state.weights;
-    for (int i = 1; i < neurons.length; i++) {
-      for (int j = 0; j < newWeights[i - 1].length; j++) {
-        double postActivation = state.activations[i][j];
-        for (int k = 1; k < newWeights[i - 1][j].length; k++) {
-          double preActivation = state.activations[i - 1][k - 1];
-          newWeights[i - 1][j][k] += learningRate * (as[i - 1][j][k] * preActivation + bs[i - 1][j][k] * postActivation + cs[i - 1][j][k] * preActivation * postActivation + ds[i - 1][j][k]);
-        }
-      }
+    // swap activations: the update of weights uses those of the previous step
+    double[] tmp = previousActivations;
+    previousActivations = activations;
+    activations = tmp;
+    for (int k = 0; k < neurons[0]; k++) {
+      activations[k] = activationFunction.applyAsDouble(input[k]);
     }
-    // compute output
-    double[][] newActivations = state.activations;
-    newActivations[0] = Arrays.stream(input).map(activationFunction).toArray();
+    // update weights and compute output in one pass
+    int c = 0;
+    int stride = HebbianUtils.coefficientsStride(parametrizationType);
     for (int i = 1; i < neurons.length; i++) {
-      newActivations[i] = new double[neurons[i]];
+      int preOffset = activationOffsets[i - 1];
+      int postOffset = activationOffsets[i];
       for (int j = 0; j < neurons[i]; j++) {
-        double sum = state.weights[i - 1][j][0]; // set the bias
+        double postActivation = previousActivations[postOffset + j];
+        int base = HebbianUtils.coefficientsBase(parametrizationType, i - 1, postOffset - neurons[0] + j, c);
+        double sum = weights[c]; // set the bias
         for (int k = 1; k < neurons[i - 1] + 1; k++) {
-          sum = sum + newActivations[i - 1][k - 1] * state.weights[i - 1][j][k];
+          double preActivation = previousActivations[preOffset + k - 1];
+          int p = base + k * stride;
+          weights[c + k] += learningRate * (as[p] * preActivation + bs[p] * postActivation + cs[p] * preActivation * postActivation + ds[p]);
+          sum = sum + activations[preOffset + k - 1] * weights[c + k];
         }
-        newActivations[i][j] = activationFunction.applyAsDouble(sum);
+        activations[postOffset + j] = activationFunction.applyAsDouble(sum);
+        c = c + neurons[i - 1] + 1;
       }
     }
-    // update state
-    state = new State(newWeights, newActivations);
-    return newActivations[neurons.length - 1];
+    state = null;
+    System.arraycopy(activations, activationOffsets[neurons.length - 1], output, 0, nOfOutputs());
+    return output;
   }
 
   @Override
@@ -264,78 +203,60 @@ public class HebbianMultilayerPerceptron implements NumericalTimeInvariantDynami
 
   @Override
   public State getState() {
+    if (state == null) {
+      state = new State(
+          MultiLayerPerceptron.unflat(weights, neurons),
+          HebbianUtils.layerActivations(activations, activationOffsets)
+      );
+    }
     return state;
   }
 
   @Override
   public void reset() {
-    state = new State(
-        initialWeights,
-        Arrays.stream(neurons).mapToObj(double[]::new).toArray(double[][]::new)
-    );
     if (weightInitializationType.equals(WeightInitializationType.RANDOM)) {
-      for (int i = 1; i < neurons.length; i++) {
-        for (int j = 0; j < neurons[i]; j++) {
-          for (int k = 0; k < neurons[i - 1] + 1; k++) {
-            state.weights[i - 1][j][k] = initialWeightRange.denormalize(randomGenerator.nextDouble());
-          }
-        }
+      for (int c = 0; c < weights.length; c++) {
+        weights[c] = initialWeightRange.denormalize(randomGenerator.nextDouble());
       }
+    } else {
+      System.arraycopy(initialWeights, 0, weights, 0, weights.length);
     }
+    Arrays.fill(activations, 0d);
+    Arrays.fill(previousActivations, 0d);
+    state = null;
   }
 
   @Override
   public double[] getParams() {
-    double[] flatAs = flat(parametrizationType, as, neurons);
-    double[] flatBs = flat(parametrizationType, bs, neurons);
-    double[] flatCs = flat(parametrizationType, cs, neurons);
-    double[] flatDs = flat(parametrizationType, ds, neurons);
-
     if (weightInitializationType.equals(WeightInitializationType.PARAMS)) {
-      double[] flatWeights = MultiLayerPerceptron.flat(state.weights, neurons);
-      return concat(flatAs, flatBs, flatCs, flatDs, flatWeights);
+      return concat(as, bs, cs, ds, initialWeights);
     } else {
-      return concat(flatAs, flatBs, flatCs, flatDs);
+      return concat(as, bs, cs, ds);
     }
   }
 
   @Override
   public void setParams(double[] params) {
-    int n = countParams(parametrizationType, neurons);
-    set(unflat(parametrizationType, Arrays.copyOfRange(params, 0, n), neurons), as);
-    set(unflat(parametrizationType, Arrays.copyOfRange(params, n, 2 * n), neurons), bs);
-    set(unflat(parametrizationType, Arrays.copyOfRange(params, 2 * n, 3 * n), neurons), cs);
-    set(unflat(parametrizationType, Arrays.copyOfRange(params, 3 * n, 4 * n), neurons), ds);
+    int n = HebbianUtils.countParams(parametrizationType, neurons);
+    HebbianUtils.checkParams(params, n, initialWeights.length, weightInitializationType);
+    System.arraycopy(params, 0, as, 0, n);
+    System.arraycopy(params, n, bs, 0, n);
+    System.arraycopy(params, 2 * n, cs, 0, n);
+    System.arraycopy(params, 3 * n, ds, 0, n);
     if (weightInitializationType.equals(WeightInitializationType.PARAMS)) {
-      set(
-          unflat(ParametrizationType.SYNAPSE, Arrays.copyOfRange(params, 4 * n, params.length), neurons),
-          state.weights
-      );
+      System.arraycopy(params, 4 * n, initialWeights, 0, initialWeights.length);
     }
     reset();
   }
 
   @Override
   public String toString() {
-    return "HebbianMLP-%s-%s"
-        .formatted(
-            activationFunction.toString().toLowerCase(),
-            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">"))
-        );
+    return HebbianUtils.toString("HebbianMLP", activationFunction, neurons);
   }
 
   @Override
   public NumericalStatelessSystem stateless() {
-    double[][][] frozenWeights = unflat(
-        ParametrizationType.SYNAPSE,
-        flat(
-            ParametrizationType.SYNAPSE,
-            getState().weights,
-            neurons
-        ),
-        neurons
-    );
-    return new MultiLayerPerceptron(activationFunction, frozenWeights, neurons);
+    return new MultiLayerPerceptron(activationFunction, Arrays.copyOf(weights, weights.length), neurons);
   }
 
   public enum ParametrizationType {
@@ -0,0 +1,118 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.HebbianMultilayerPerceptron.ParametrizationType;
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.HebbianMultilayerPerceptron.WeightInitializationType;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// layout of coefficients, params, and activations shared by the double and float Hebbian MLPs
+class HebbianUtils {
+
+  private HebbianUtils() {
+  }
+
+  static int[] activationOffsets(int[] neurons) {
+    int[] activationOffsets = new int[neurons.length + 1];
+    for (int i = 0; i < neurons.length; i = i + 1) {
+      activationOffsets[i + 1] = activationOffsets[i] + neurons[i];
+    }
+    return activationOffsets;
+  }
+
+  static void checkParams(
+      double[] params,
+      int nOfCoefficients,
+      int nOfInitialWeights,
+      WeightInitializationType weightInitializationType
+  ) {
+    if (params.length < 4 * nOfCoefficients) {
+      throw new IllegalArgumentException(
+          "Wrong number of params: at least %d expected, %d found".formatted(4 * nOfCoefficients, params.length)
+      );
+    }
+    if (weightInitializationType.equals(WeightInitializationType.PARAMS)
+        && params.length - 4 * nOfCoefficients != nOfInitialWeights) {
+      throw new IllegalArgumentException(
+          "Wrong number of weights: %d expected, %d found"
+              .formatted(nOfInitialWeights, params.length - 4 * nOfCoefficients)
+      );
+    }
+  }
+
+  // index of the coefficients of the first synapse of a neuron, given the layer and the neuron (both excluding the
+  // input layer) and the index of the bias of the neuron in the flat weights
+  static int coefficientsBase(ParametrizationType parametrizationType, int layer, int neuron, int weightIndex) {
+    return switch (parametrizationType) {
+      case NETWORK -> 0;
+      case LAYER -> layer;
+      case NEURON -> neuron;
+      case SYNAPSE -> weightIndex;
+    };
+  }
+
+  static int coefficientsStride(ParametrizationType parametrizationType) {
+    return parametrizationType.equals(ParametrizationType.SYNAPSE) ? 1 : 0;
+  }
+
+  static int countParams(ParametrizationType parametrizationType, int[] neurons) {
+    return switch (parametrizationType) {
+      case NETWORK -> 1;
+      case LAYER -> (neurons.length - 1);
+      case NEURON -> Arrays.stream(neurons).skip(1).sum();
+      case SYNAPSE -> MultiLayerPerceptron.countWeights(neurons);
+    };
+  }
+
+  static double[][][] emptyArray(int[] neurons) {
+    return MultiLayerPerceptron.unflat(new double[MultiLayerPerceptron.countWeights(neurons)], neurons);
+  }
+
+  static double[] flat(ParametrizationType parametrizationType, double[][][] params, int[] neurons) {
+    return switch (parametrizationType) {
+      case NETWORK -> new double[]{params[0][0][0]};
+      case LAYER -> Arrays.stream(params)
+          .mapToDouble(l -> l[0][0])
+          .toArray();
+      case NEURON -> Arrays.stream(params)
+          .flatMap(l -> Arrays.stream(l).mapToDouble(n -> n[0]).boxed())
+          .mapToDouble(v -> v)
+          .toArray();
+      case SYNAPSE -> MultiLayerPerceptron.flat(params, neurons);
+    };
+  }
+
+  static double[][] layerActivations(double[] activations, int[] activationOffsets) {
+    return IntStream.range(0, activationOffsets.length - 1)
+        .mapToObj(i -> Arrays.copyOfRange(activations, activationOffsets[i], activationOffsets[i + 1]))
+        .toArray(double[][]::new);
+  }
+
+  static String toString(String name, MultiLayerPerceptron.ActivationFunction activationFunction, int[] neurons) {
+    return "%s-%s-%s"
+        .formatted(
+            name,
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">"))
+        );
+  }
+}
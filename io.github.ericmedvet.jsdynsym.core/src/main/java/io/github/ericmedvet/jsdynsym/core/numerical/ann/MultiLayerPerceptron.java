@@ -22,7 +22,9 @@ package io.github.ericmedvet.jsdynsym.core.numerical.ann;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.numerical.LinearAlgebraUtils;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import io.github.ericmedvet.jsdynsym.core.numerical.ScratchBuffers;
 import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
 import java.util.stream.Collectors;
@@ -30,22 +32,28 @@ import java.util.stream.Collectors;
 public class MultiLayerPerceptron implements MultivariateRealFunction, NumericalParametrized<MultiLayerPerceptron> {
 
   private final ActivationFunction activationFunction;
-  private final double[][][] weights;
+  private final double[] weights;
   private final int[] neurons;
+  private final int maxLayerSize;
 
-  public MultiLayerPerceptron(ActivationFunction activationFunction, double[][][] weights, int[] neurons) {
-    this.activationFunction = activationFunction;
-    this.weights = weights;
-    this.neurons = neurons;
-    if (flat(weights, neurons).length != countWeights(neurons)) {
+  public MultiLayerPerceptron(ActivationFunction activationFunction, double[] weights, int[] neurons) {
+    if (weights.length != countWeights(neurons)) {
       throw new IllegalArgumentException(
           String.format(
               "Wrong number of weights: %d expected, %d found",
               countWeights(neurons),
-              flat(weights, neurons).length
+              weights.length
           )
       );
     }
+    this.activationFunction = activationFunction;
+    this.weights = Arrays.copyOf(weights, weights.length);
+    this.neurons = Arrays.copyOf(neurons, neurons.length);
+    maxLayerSize = Arrays.stream(neurons).max().orElse(0);
+  }
+
+  public MultiLayerPerceptron(ActivationFunction activationFunction, double[][][] weights, int[] neurons) {
+    this(activationFunction, flat(weights, neurons), neurons);
   }
 
   public MultiLayerPerceptron(
@@ -55,11 +63,7 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
       int nOfOutput,
       double[] weights
   ) {
-    this(
-        activationFunction,
-        unflat(weights, countNeurons(nOfInput, innerNeurons, nOfOutput)),
-        countNeurons(nOfInput, innerNeurons, nOfOutput)
-    );
+    this(activationFunction, weights, countNeurons(nOfInput, innerNeurons, nOfOutput));
   }
 
   public MultiLayerPerceptron(
@@ -84,7 +88,13 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
     ), SIN(Math::sin, DoubleRange.SYMMETRIC_UNIT), TANH(Math::tanh, DoubleRange.SYMMETRIC_UNIT), SIGN(
         Math::signum,
         DoubleRange.SYMMETRIC_UNIT
-    ), IDENTITY(x -> x, DoubleRange.UNBOUNDED);
+    ), IDENTITY(x -> x, DoubleRange.UNBOUNDED), FAST_TANH(
+        ActivationFunction::fastTanh,
+        DoubleRange.SYMMETRIC_UNIT
+    ), FAST_SIGMOID(ActivationFunction::fastSigmoid, DoubleRange.UNIT);
+
+    // beyond this value, the rational approximation of tanh exceeds 1
+    private static final double FAST_TANH_CLAMP = 4.97;
 
     private final DoubleUnaryOperator f;
     private final DoubleRange domain;
@@ -106,6 +116,26 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
     public DoubleUnaryOperator getF() {
       return f;
     }
+
+    /**
+     * Computes 1/(1+e^-x) through {@link #fastTanh(double)}, with a maximum absolute error of 5E-5.
+     */
+    public static double fastSigmoid(double x) {
+      return 0.5d + 0.5d * fastTanh(0.5d * x);
+    }
+
+    /**
+     * Computes tanh(x) with a (7,6) rational approximation from Lambert's continued fraction, with a maximum absolute
+     * error of 1E-4, reached for |x| close to the clamping value. There are no branches: the code is hence amenable to
+     * vectorization.
+     */
+    public static double fastTanh(double x) {
+      x = Math.max(-FAST_TANH_CLAMP, Math.min(FAST_TANH_CLAMP, x));
+      double x2 = x * x;
+      double num = x * (135135d + x2 * (17325d + x2 * (378d + x2)));
+      double den = 135135d + x2 * (62370d + x2 * (3150d + x2 * 28d));
+      return Math.max(-1d, Math.min(1d, num / den));
+    }
   }
 
   public static int[] countNeurons(int nOfInput, int[] innerNeurons, int nOfOutput) {
@@ -160,39 +190,86 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
 
   @Override
   public double[] compute(double[] input) {
+    return compute(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] compute(double[] input, double[] output) {
     if (input.length != neurons[0]) {
       throw new IllegalArgumentException(
           String.format("Expected input length is %d: found %d", neurons[0], input.length)
       );
     }
-    double[][] activationValues = new double[neurons.length][];
-    activationValues[0] = Arrays.stream(input).map(activationFunction).toArray();
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(
+          String.format("Expected output length is %d: found %d", neurons[neurons.length - 1], output.length)
+      );
+    }
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    double[] first = scratchBuffers.doubles(maxLayerSize);
+    double[] second = scratchBuffers.doubles(maxLayerSize);
+    try {
+      double[] previous = first;
+      double[] current = second;
+      for (int k = 0; k < neurons[0]; k++) {
+        previous[k] = activationFunction.applyAsDouble(input[k]);
+      }
+      int c = 0;
+      for (int i = 1; i < neurons.length; i++) {
+        double[] values = (i == neurons.length - 1) ? output : current;
+        LinearAlgebraUtils.biasedProduct(weights, c, previous, neurons[i - 1], activationFunction, values, neurons[i]);
+        c = c + neurons[i] * (neurons[i - 1] + 1);
+        current = previous;
+        previous = values;
+      }
+      return output;
+    } finally {
+      scratchBuffers.release(first);
+      scratchBuffers.release(second);
+    }
+  }
+
+  @Override
+  public double[] computeBatch(double[] inputs) {
+    int nOfRows = checkBatchSize(inputs);
+    double[] activationValues = Arrays.stream(inputs).map(activationFunction).toArray();
+    int c = 0;
     for (int i = 1; i < neurons.length; i++) {
-      activationValues[i] = new double[neurons[i]];
+      int nOfPrevious = neurons[i - 1];
+      double[] newActivationValues = new double[nOfRows * neurons[i]];
       for (int j = 0; j < neurons[i]; j++) {
-        double sum = weights[i - 1][j][0]; // set the bias
-        for (int k = 1; k < neurons[i - 1] + 1; k++) {
-          sum = sum + activationValues[i - 1][k - 1] * weights[i - 1][j][k];
+        for (int r = 0; r < nOfRows; r++) {
+          int offset = r * nOfPrevious;
+          double sum = weights[c]; // set the bias
+          for (int k = 0; k < nOfPrevious; k++) {
+            sum = sum + activationValues[offset + k] * weights[c + 1 + k];
+          }
+          newActivationValues[r * neurons[i] + j] = activationFunction.applyAsDouble(sum);
         }
-        activationValues[i][j] = activationFunction.applyAsDouble(sum);
+        c = c + nOfPrevious + 1;
       }
+      activationValues = newActivationValues;
     }
-    return activationValues[neurons.length - 1];
+    return activationValues;
+  }
+
+  public ActivationFunction getActivationFunction() {
+    return activationFunction;
   }
 
   @Override
   public double[] getParams() {
-    return flat(weights, neurons);
+    return Arrays.copyOf(weights, weights.length);
   }
 
   @Override
   public void setParams(double[] params) {
-    double[][][] newWeights = MultiLayerPerceptron.unflat(params, neurons);
-    for (int l = 0; l < newWeights.length; l++) {
-      for (int s = 0; s < newWeights[l].length; s++) {
-        System.arraycopy(newWeights[l][s], 0, weights[l][s], 0, newWeights[l][s].length);
-      }
+    if (params.length != weights.length) {
+      throw new IllegalArgumentException(
+          String.format("Wrong number of params: %d expected, %d found", weights.length, params.length)
+      );
     }
+    System.arraycopy(params, 0, weights, 0, weights.length);
   }
 
   public int sizeOfLayer(
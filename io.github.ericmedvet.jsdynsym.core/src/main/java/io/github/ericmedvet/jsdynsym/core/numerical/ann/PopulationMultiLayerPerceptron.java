@@ -0,0 +1,206 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.LinearAlgebraUtils;
+import io.github.ericmedvet.jsdynsym.core.numerical.ScratchBuffers;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A population of {@link MultiLayerPerceptron}s sharing topology and activation function, evaluated together. Weights
+ * are stored in a single structure-of-arrays block, where the values of the same weight for all the individuals are
+ * contiguous, and activations are stored neuron-major: each layer is hence computed with element-wise operations
+ * spanning many individuals, rather than with one small matrix-vector product per individual. Individuals are processed
+ * in blocks, so that the activations of a block stay in cache through all the layers; blocks are possibly processed in
+ * parallel.
+ */
+public class PopulationMultiLayerPerceptron {
+
+  private static final int BLOCK_SIZE = 256;
+
+  private final MultiLayerPerceptron.ActivationFunction activationFunction;
+  private final int[] neurons;
+  private final int populationSize;
+  private final boolean parallel;
+  private final double[] weights;
+  private final int bufferSize;
+
+  public PopulationMultiLayerPerceptron(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int[] neurons,
+      int populationSize,
+      boolean parallel
+  ) {
+    this.activationFunction = activationFunction;
+    this.neurons = neurons;
+    this.populationSize = populationSize;
+    this.parallel = parallel;
+    weights = new double[MultiLayerPerceptron.countWeights(neurons) * populationSize];
+    bufferSize = Arrays.stream(neurons).max().orElse(0) * Math.min(BLOCK_SIZE, populationSize);
+  }
+
+  public static PopulationMultiLayerPerceptron of(List<MultiLayerPerceptron> mlps, boolean parallel) {
+    MultiLayerPerceptron first = mlps.getFirst();
+    int[] neurons = IntStream.range(0, first.nOfLayers()).map(first::sizeOfLayer).toArray();
+    PopulationMultiLayerPerceptron population = new PopulationMultiLayerPerceptron(
+        first.getActivationFunction(),
+        neurons,
+        mlps.size(),
+        parallel
+    );
+    for (int p = 0; p < mlps.size(); p++) {
+      MultiLayerPerceptron mlp = mlps.get(p);
+      int[] otherNeurons = IntStream.range(0, mlp.nOfLayers()).map(mlp::sizeOfLayer).toArray();
+      if (!Arrays.equals(neurons, otherNeurons) || !mlp.getActivationFunction().equals(first.getActivationFunction())) {
+        throw new IllegalArgumentException(
+            "MLP %d differs from the first one: %s vs. %s".formatted(p, mlp, first)
+        );
+      }
+      population.setParams(p, mlp.getParams());
+    }
+    return population;
+  }
+
+  public double[] compute(double[] inputs) {
+    return compute(inputs, new double[populationSize * nOfOutputs()]);
+  }
+
+  public double[] compute(double[] inputs, double[] outputs) {
+    if (inputs.length != populationSize * nOfInputs()) {
+      throw new IllegalArgumentException(
+          "Wrong inputs size: %d expected (%d rows of %d), %d found"
+              .formatted(populationSize * nOfInputs(), populationSize, nOfInputs(), inputs.length)
+      );
+    }
+    if (outputs.length != populationSize * nOfOutputs()) {
+      throw new IllegalArgumentException(
+          "Wrong outputs size: %d expected (%d rows of %d), %d found"
+              .formatted(populationSize * nOfOutputs(), populationSize, nOfOutputs(), outputs.length)
+      );
+    }
+    int nOfBlocks = (populationSize + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    IntStream blocks = IntStream.range(0, nOfBlocks);
+    if (parallel && nOfBlocks > 1) {
+      blocks = blocks.parallel();
+    }
+    blocks.forEach(b -> computeBlock(
+        inputs,
+        outputs,
+        b * BLOCK_SIZE,
+        Math.min(populationSize, (b + 1) * BLOCK_SIZE)
+    ));
+    return outputs;
+  }
+
+  private void computeBlock(double[] inputs, double[] outputs, int from, int to) {
+    int n = to - from;
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    double[] first = scratchBuffers.doubles(bufferSize);
+    double[] second = scratchBuffers.doubles(bufferSize);
+    try {
+      double[] previous = first;
+      double[] current = second;
+      int nOfInputs = neurons[0];
+      for (int q = 0; q < n; q++) {
+        for (int k = 0; k < nOfInputs; k++) {
+          previous[k * n + q] = activationFunction.applyAsDouble(inputs[(from + q) * nOfInputs + k]);
+        }
+      }
+      int c = 0;
+      for (int i = 1; i < neurons.length; i++) {
+        for (int j = 0; j < neurons[i]; j++) {
+          System.arraycopy(weights, c * populationSize + from, current, j * n, n); // set the bias
+          for (int k = 0; k < neurons[i - 1]; k++) {
+            LinearAlgebraUtils.mulAdd(weights, (c + 1 + k) * populationSize + from, previous, k * n, current, j * n, n);
+          }
+          for (int q = j * n; q < (j + 1) * n; q++) {
+            current[q] = activationFunction.applyAsDouble(current[q]);
+          }
+          c = c + neurons[i - 1] + 1;
+        }
+        double[] tmp = previous;
+        previous = current;
+        current = tmp;
+      }
+      int nOfOutputs = neurons[neurons.length - 1];
+      for (int q = 0; q < n; q++) {
+        for (int j = 0; j < nOfOutputs; j++) {
+          outputs[(from + q) * nOfOutputs + j] = previous[j * n + q];
+        }
+      }
+    } finally {
+      scratchBuffers.release(first);
+      scratchBuffers.release(second);
+    }
+  }
+
+  public MultiLayerPerceptron get(int p) {
+    return new MultiLayerPerceptron(activationFunction, getParams(p), neurons);
+  }
+
+  public double[] getParams(int p) {
+    double[] params = new double[MultiLayerPerceptron.countWeights(neurons)];
+    for (int w = 0; w < params.length; w++) {
+      params[w] = weights[w * populationSize + p];
+    }
+    return params;
+  }
+
+  public int nOfInputs() {
+    return neurons[0];
+  }
+
+  public int nOfOutputs() {
+    return neurons[neurons.length - 1];
+  }
+
+  public int populationSize() {
+    return populationSize;
+  }
+
+  public void setParams(int p, double[] params) {
+    if (params.length != MultiLayerPerceptron.countWeights(neurons)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Wrong number of params: %d expected, %d found",
+              MultiLayerPerceptron.countWeights(neurons),
+              params.length
+          )
+      );
+    }
+    for (int w = 0; w < params.length; w++) {
+      weights[w * populationSize + p] = params[w];
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PopulationMLP-%s-%s-x%d"
+        .formatted(
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">")),
+            populationSize
+        );
+  }
+}
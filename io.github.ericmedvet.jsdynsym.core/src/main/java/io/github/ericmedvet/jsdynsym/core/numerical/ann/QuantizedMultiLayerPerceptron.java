@@ -0,0 +1,245 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import io.github.ericmedvet.jsdynsym.core.numerical.ScratchBuffers;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A post-training quantized version of a {@link MultiLayerPerceptron}: weights are stored as int8 values with per-layer
+ * or per-neuron scales, activations are quantized to int8 with per-layer scales determined on a calibration set, and
+ * dot products are accumulated in int32. The maximum absolute difference of the outputs with respect to the reference
+ * network on the calibration set is available through {@link #calibrationError()}.
+ */
+public class QuantizedMultiLayerPerceptron implements MultivariateRealFunction {
+
+  private static final int MAX_Q = 127;
+
+  private final MultiLayerPerceptron.ActivationFunction activationFunction;
+  private final int[] neurons;
+  private final Granularity granularity;
+  private final byte[] weights;
+  private final int[] biases;
+  private final double[] weightScales;
+  private final double[] activationScales;
+  private final int maxLayerSize;
+  private final double calibrationError;
+
+  private QuantizedMultiLayerPerceptron(MultiLayerPerceptron mlp, Granularity granularity, List<double[]> calibrationInputs) {
+    if (calibrationInputs.isEmpty()) {
+      throw new IllegalArgumentException("Cannot calibrate on an empty set of inputs");
+    }
+    activationFunction = mlp.getActivationFunction();
+    neurons = IntStream.range(0, mlp.nOfLayers()).map(mlp::sizeOfLayer).toArray();
+    this.granularity = granularity;
+    double[] flatWeights = mlp.getParams();
+    // activation scales from the ranges observed on the calibration set
+    int[] activationOffsets = new int[neurons.length + 1];
+    for (int i = 0; i < neurons.length; i++) {
+      activationOffsets[i + 1] = activationOffsets[i] + neurons[i];
+    }
+    double[] maxAbsActivations = new double[neurons.length];
+    for (double[] input : calibrationInputs) {
+      double[] activations = referenceActivations(flatWeights, input, activationOffsets);
+      for (int i = 0; i < neurons.length; i++) {
+        for (int j = activationOffsets[i]; j < activationOffsets[i + 1]; j++) {
+          maxAbsActivations[i] = Math.max(maxAbsActivations[i], Math.abs(activations[j]));
+        }
+      }
+    }
+    activationScales = Arrays.stream(maxAbsActivations).map(QuantizedMultiLayerPerceptron::scale).toArray();
+    // weights, with one scale per neuron (possibly shared by all the neurons of a layer)
+    int nOfNeurons = activationOffsets[neurons.length] - neurons[0];
+    weights = new byte[flatWeights.length - nOfNeurons];
+    biases = new int[nOfNeurons];
+    weightScales = new double[nOfNeurons];
+    int c = 0;
+    int w = 0;
+    int n = 0;
+    for (int i = 1; i < neurons.length; i++) {
+      int nOfPrevious = neurons[i - 1];
+      double layerMaxAbs = 0;
+      for (int j = 0; j < neurons[i]; j++) {
+        layerMaxAbs = Math.max(layerMaxAbs, maxAbs(flatWeights, c + j * (nOfPrevious + 1) + 1, nOfPrevious));
+      }
+      for (int j = 0; j < neurons[i]; j++) {
+        double weightScale = scale(switch (granularity) {
+          case LAYER -> layerMaxAbs;
+          case NEURON -> maxAbs(flatWeights, c + 1, nOfPrevious);
+        });
+        weightScales[n] = weightScale;
+        long bias = Math.round(flatWeights[c] / (weightScale * activationScales[i - 1]));
+        biases[n] = (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, bias));
+        for (int k = 0; k < nOfPrevious; k++) {
+          weights[w] = quantize(flatWeights[c + 1 + k], weightScale);
+          w = w + 1;
+        }
+        c = c + nOfPrevious + 1;
+        n = n + 1;
+      }
+    }
+    maxLayerSize = Arrays.stream(neurons).max().orElse(0);
+    calibrationError = calibrationInputs.stream()
+        .mapToDouble(input -> {
+          double[] reference = mlp.compute(input);
+          double[] quantized = compute(input);
+          double error = 0;
+          for (int j = 0; j < reference.length; j++) {
+            error = Math.max(error, Math.abs(reference[j] - quantized[j]));
+          }
+          return error;
+        })
+        .max()
+        .orElse(0d);
+  }
+
+  public enum Granularity {
+    LAYER, NEURON
+  }
+
+  public static QuantizedMultiLayerPerceptron of(
+      MultiLayerPerceptron mlp,
+      Granularity granularity,
+      List<double[]> calibrationInputs
+  ) {
+    return new QuantizedMultiLayerPerceptron(mlp, granularity, calibrationInputs);
+  }
+
+  private static double maxAbs(double[] values, int offset, int length) {
+    double maxAbs = 0;
+    for (int i = offset; i < offset + length; i++) {
+      maxAbs = Math.max(maxAbs, Math.abs(values[i]));
+    }
+    return maxAbs;
+  }
+
+  private static byte quantize(double value, double scale) {
+    return (byte) Math.max(-MAX_Q, Math.min(MAX_Q, Math.round(value / scale)));
+  }
+
+  private static double scale(double maxAbs) {
+    // all-zero values can be represented with any scale
+    return maxAbs > 0 ? maxAbs / MAX_Q : 1d;
+  }
+
+  public double calibrationError() {
+    return calibrationError;
+  }
+
+  @Override
+  public double[] compute(double... input) {
+    return compute(input, new double[nOfOutputs()]);
+  }
+
+  @Override
+  public double[] compute(double[] input, double[] output) {
+    if (input.length != neurons[0]) {
+      throw new IllegalArgumentException(
+          String.format("Expected input length is %d: found %d", neurons[0], input.length)
+      );
+    }
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(
+          String.format("Expected output length is %d: found %d", neurons[neurons.length - 1], output.length)
+      );
+    }
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    byte[] first = scratchBuffers.bytes(maxLayerSize);
+    byte[] second = scratchBuffers.bytes(maxLayerSize);
+    try {
+      byte[] previous = first;
+      byte[] current = second;
+      for (int k = 0; k < neurons[0]; k++) {
+        previous[k] = quantize(activationFunction.applyAsDouble(input[k]), activationScales[0]);
+      }
+      int w = 0;
+      int n = 0;
+      for (int i = 1; i < neurons.length; i++) {
+        boolean last = i == neurons.length - 1;
+        int nOfPrevious = neurons[i - 1];
+        for (int j = 0; j < neurons[i]; j++) {
+          int sum = biases[n];
+          for (int k = 0; k < nOfPrevious; k++) {
+            sum = sum + weights[w + k] * previous[k];
+          }
+          double value = activationFunction.applyAsDouble(sum * weightScales[n] * activationScales[i - 1]);
+          if (last) {
+            output[j] = value;
+          } else {
+            current[j] = quantize(value, activationScales[i]);
+          }
+          w = w + nOfPrevious;
+          n = n + 1;
+        }
+        byte[] tmp = previous;
+        previous = current;
+        current = tmp;
+      }
+      return output;
+    } finally {
+      scratchBuffers.release(first);
+      scratchBuffers.release(second);
+    }
+  }
+
+  @Override
+  public int nOfInputs() {
+    return neurons[0];
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return neurons[neurons.length - 1];
+  }
+
+  private double[] referenceActivations(double[] flatWeights, double[] input, int[] activationOffsets) {
+    double[] activations = new double[activationOffsets[neurons.length]];
+    for (int k = 0; k < neurons[0]; k++) {
+      activations[k] = activationFunction.applyAsDouble(input[k]);
+    }
+    int c = 0;
+    for (int i = 1; i < neurons.length; i++) {
+      for (int j = 0; j < neurons[i]; j++) {
+        double sum = flatWeights[c];
+        for (int k = 0; k < neurons[i - 1]; k++) {
+          sum = sum + flatWeights[c + 1 + k] * activations[activationOffsets[i - 1] + k];
+        }
+        activations[activationOffsets[i] + j] = activationFunction.applyAsDouble(sum);
+        c = c + neurons[i - 1] + 1;
+      }
+    }
+    return activations;
+  }
+
+  @Override
+  public String toString() {
+    return "QuantizedMLP-%s-%s-%s"
+        .formatted(
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">")),
+            granularity.toString().toLowerCase()
+        );
+  }
+}
@@ -21,7 +21,9 @@
 package io.github.ericmedvet.jsdynsym.core.numerical.named;
 
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import io.github.ericmedvet.jsdynsym.core.numerical.ScratchBuffers;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -29,8 +31,6 @@ import java.util.Objects;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public interface NamedMultivariateRealFunction extends MultivariateRealFunction {
   Map<String, Double> compute(Map<String, Double> input);
@@ -70,29 +70,77 @@ public interface NamedMultivariateRealFunction extends MultivariateRealFunction
       List<String> xVarNames,
       List<String> yVarNames
   ) {
-    return from(
-        input -> {
-          double[] in = xVarNames.stream().mapToDouble(input::get).toArray();
-          if (in.length != mrf.nOfInputs()) {
-            throw new IllegalArgumentException(
-                "Wrong input size: %d expected, %d found".formatted(mrf.nOfInputs(), in.length)
-            );
-          }
-          double[] out = mrf.compute(in);
-          if (out.length != yVarNames.size()) {
-            throw new IllegalArgumentException(
-                "Wrong output size: %d expected, %d found".formatted(yVarNames.size(), in.length)
-            );
-          }
-          return IntStream.range(0, yVarNames.size())
-              .mapToObj(i -> Map.entry(yVarNames.get(i), out[i]))
-              .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        },
-        xVarNames,
-        yVarNames,
-        mrf
-    );
+    record BoundNMRF(
+        MultivariateRealFunction inner,
+        List<String> xVarNames,
+        List<String> yVarNames
+    ) implements io.github.ericmedvet.jnb.datastructure.Composed<MultivariateRealFunction>, NamedMultivariateRealFunction {
+
+      @Override
+      public Map<String, Double> compute(Map<String, Double> input) {
+        return toMap(yVarNames, compute(fromMap(xVarNames, input)));
+      }
+
+      @Override
+      public double[] compute(double... xs) {
+        return compute(xs, new double[yVarNames.size()]);
+      }
+
+      @Override
+      public double[] compute(double[] input, double[] output) {
+        if (input.length != inner.nOfInputs()) {
+          throw new IllegalArgumentException(
+              "Wrong input size: %d expected, %d found".formatted(inner.nOfInputs(), input.length)
+          );
+        }
+        if (output.length != inner.nOfOutputs()) {
+          throw new IllegalArgumentException(
+              "Wrong output size: %d expected, %d found".formatted(inner.nOfOutputs(), output.length)
+          );
+        }
+        return inner.compute(input, output);
+      }
+
+      @Override
+      public String toString() {
+        return inner.toString();
+      }
+    }
+    return new BoundNMRF(mrf, xVarNames, yVarNames);
+  }
+
+  static double[] fromMap(List<String> varNames, Map<String, Double> map) {
+    double[] values = new double[varNames.size()];
+    for (int i = 0; i < values.length; i = i + 1) {
+      values[i] = map.get(varNames.get(i));
+    }
+    return values;
+  }
+
+  static int[] slots(List<String> varNames, List<String> frameVarNames) {
+    Map<String, Integer> frameIndexes = new HashMap<>();
+    for (int i = 0; i < frameVarNames.size(); i = i + 1) {
+      frameIndexes.putIfAbsent(frameVarNames.get(i), i);
+    }
+    int[] slots = new int[varNames.size()];
+    for (int i = 0; i < slots.length; i = i + 1) {
+      Integer slot = frameIndexes.get(varNames.get(i));
+      if (slot == null) {
+        throw new IllegalArgumentException(
+            "Var %s not found in %s".formatted(varNames.get(i), frameVarNames)
+        );
+      }
+      slots[i] = slot;
+    }
+    return slots;
+  }
+
+  static Map<String, Double> toMap(List<String> varNames, double[] values) {
+    Map<String, Double> map = new HashMap<>(2 * varNames.size());
+    for (int i = 0; i < values.length; i = i + 1) {
+      map.put(varNames.get(i), values[i]);
+    }
+    return map;
   }
 
   default NamedMultivariateRealFunction andThen(NamedMultivariateRealFunction other) {
@@ -103,12 +151,35 @@ public interface NamedMultivariateRealFunction extends MultivariateRealFunction
       );
     }
     NamedMultivariateRealFunction thisNmrf = this;
+    int[] slots = slots(other.xVarNames(), yVarNames());
     return new NamedMultivariateRealFunction() {
       @Override
       public Map<String, Double> compute(Map<String, Double> input) {
         return other.compute(thisNmrf.compute(input));
       }
 
+      @Override
+      public double[] compute(double... xs) {
+        return compute(xs, new double[other.nOfOutputs()]);
+      }
+
+      @Override
+      public double[] compute(double[] input, double[] output) {
+        ScratchBuffers scratchBuffers = ScratchBuffers.get();
+        double[] intermediate = scratchBuffers.doubles(thisNmrf.nOfOutputs());
+        double[] otherInput = scratchBuffers.doubles(slots.length);
+        try {
+          double[] values = thisNmrf.compute(input, intermediate);
+          for (int j = 0; j < slots.length; j = j + 1) {
+            otherInput[j] = values[slots[j]];
+          }
+          return other.compute(otherInput, output);
+        } finally {
+          scratchBuffers.release(intermediate);
+          scratchBuffers.release(otherInput);
+        }
+      }
+
       @Override
       public List<String> xVarNames() {
         return thisNmrf.xVarNames();
@@ -126,6 +197,51 @@ public interface NamedMultivariateRealFunction extends MultivariateRealFunction
     };
   }
 
+  default MultivariateRealFunction bind(List<String> frameVarNames) {
+    NamedMultivariateRealFunction thisNmrf = this;
+    int[] slots = slots(xVarNames(), frameVarNames);
+    return new MultivariateRealFunction() {
+      @Override
+      public double[] compute(double... frame) {
+        return compute(frame, new double[thisNmrf.nOfOutputs()]);
+      }
+
+      @Override
+      public double[] compute(double[] frame, double[] output) {
+        if (frame.length != frameVarNames.size()) {
+          throw new IllegalArgumentException(
+              "Wrong frame size: %d expected, %d found".formatted(frameVarNames.size(), frame.length)
+          );
+        }
+        ScratchBuffers scratchBuffers = ScratchBuffers.get();
+        double[] input = scratchBuffers.doubles(slots.length);
+        try {
+          for (int i = 0; i < slots.length; i = i + 1) {
+            input[i] = frame[slots[i]];
+          }
+          return thisNmrf.compute(input, output);
+        } finally {
+          scratchBuffers.release(input);
+        }
+      }
+
+      @Override
+      public int nOfInputs() {
+        return frameVarNames.size();
+      }
+
+      @Override
+      public int nOfOutputs() {
+        return thisNmrf.nOfOutputs();
+      }
+
+      @Override
+      public String toString() {
+        return thisNmrf + "[bound:%s]".formatted(frameVarNames);
+      }
+    };
+  }
+
   @Override
   default double[] compute(double... xs) {
     if (xs.length != xVarNames().size()) {
@@ -134,12 +250,7 @@ public interface NamedMultivariateRealFunction extends MultivariateRealFunction
               .formatted(xVarNames().size(), xs.length)
       );
     }
-    Map<String, Double> output = compute(
-        IntStream.range(0, xVarNames().size())
-            .mapToObj(i -> Map.entry(xVarNames().get(i), xs[i]))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
-    );
-    return yVarNames().stream().mapToDouble(output::get).toArray();
+    return fromMap(yVarNames(), compute(toMap(xVarNames(), xs)));
   }
 
   @Override
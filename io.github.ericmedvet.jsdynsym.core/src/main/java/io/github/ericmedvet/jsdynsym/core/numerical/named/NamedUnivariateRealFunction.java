@@ -26,8 +26,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.ToDoubleFunction;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public interface NamedUnivariateRealFunction extends NamedMultivariateRealFunction, UnivariateRealFunction {
   double computeAsDouble(Map<String, Double> input);
@@ -61,34 +59,77 @@ public interface NamedUnivariateRealFunction extends NamedMultivariateRealFuncti
   }
 
   static NamedUnivariateRealFunction from(NamedMultivariateRealFunction nmrf) {
-    return from(
-        input -> nmrf.compute(input).get(nmrf.yVarNames().getFirst()),
-        nmrf.xVarNames(),
-        nmrf.yVarNames().getFirst(),
-        nmrf
-    );
+    record FirstOutputNURF(
+        NamedMultivariateRealFunction inner
+    ) implements io.github.ericmedvet.jnb.datastructure.Composed<NamedMultivariateRealFunction>, NamedUnivariateRealFunction {
+
+      @Override
+      public double computeAsDouble(Map<String, Double> input) {
+        return inner.compute(input).get(yVarName());
+      }
+
+      @Override
+      public double applyAsDouble(double[] input) {
+        return inner.compute(input)[0];
+      }
+
+      @Override
+      public List<String> xVarNames() {
+        return inner.xVarNames();
+      }
+
+      @Override
+      public String yVarName() {
+        return inner.yVarNames().getFirst();
+      }
+
+      @Override
+      public String toString() {
+        return inner.toString();
+      }
+    }
+    return new FirstOutputNURF(nmrf);
   }
 
   static NamedUnivariateRealFunction from(UnivariateRealFunction urf, List<String> xVarNames, String yVarName) {
-    return from(
-        input -> {
-          double[] in = xVarNames.stream().mapToDouble(input::get).toArray();
-          if (in.length != urf.nOfInputs()) {
-            throw new IllegalArgumentException(
-                "Wrong input size: %d expected, %d found".formatted(urf.nOfInputs(), in.length)
-            );
-          }
-          return urf.applyAsDouble(in);
-        },
-        xVarNames,
-        yVarName,
-        urf
-    );
+    record BoundNURF(
+        UnivariateRealFunction inner,
+        List<String> xVarNames,
+        String yVarName
+    ) implements io.github.ericmedvet.jnb.datastructure.Composed<UnivariateRealFunction>, NamedUnivariateRealFunction {
+
+      @Override
+      public double computeAsDouble(Map<String, Double> input) {
+        return applyAsDouble(NamedMultivariateRealFunction.fromMap(xVarNames, input));
+      }
+
+      @Override
+      public double applyAsDouble(double[] input) {
+        if (input.length != inner.nOfInputs()) {
+          throw new IllegalArgumentException(
+              "Wrong input size: %d expected, %d found".formatted(inner.nOfInputs(), input.length)
+          );
+        }
+        return inner.applyAsDouble(input);
+      }
+
+      @Override
+      public String toString() {
+        return inner.toString();
+      }
+    }
+    return new BoundNURF(urf, xVarNames, yVarName);
   }
 
   @Override
   default double applyAsDouble(double[] input) {
-    return compute(input)[0];
+    if (input.length != xVarNames().size()) {
+      throw new IllegalArgumentException(
+          "Wrong number of inputs: %d expected, %d found"
+              .formatted(xVarNames().size(), input.length)
+      );
+    }
+    return computeAsDouble(NamedMultivariateRealFunction.toMap(xVarNames(), input));
   }
 
   @Override
@@ -103,18 +144,13 @@ public interface NamedUnivariateRealFunction extends NamedMultivariateRealFuncti
 
   @Override
   default double[] compute(double... xs) {
-    if (xs.length != xVarNames().size()) {
-      throw new IllegalArgumentException(
-          "Wrong number of inputs: %d expected, %d found"
-              .formatted(xVarNames().size(), xs.length)
-      );
-    }
-    Map<String, Double> output = compute(
-        IntStream.range(0, xVarNames().size())
-            .mapToObj(i -> Map.entry(xVarNames().get(i), xs[i]))
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
-    );
-    return yVarNames().stream().mapToDouble(output::get).toArray();
+    return new double[]{applyAsDouble(xs)};
+  }
+
+  @Override
+  default double[] compute(double[] input, double[] output) {
+    output[0] = applyAsDouble(input);
+    return output;
   }
 
   @Override
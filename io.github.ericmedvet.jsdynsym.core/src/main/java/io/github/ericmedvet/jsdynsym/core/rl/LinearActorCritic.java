@@ -22,19 +22,47 @@ package io.github.ericmedvet.jsdynsym.core.rl;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.core.numerical.LinearAlgebraUtils;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
-import io.github.ericmedvet.jsdynsym.core.numerical.NumericalStatelessSystem;
 import io.github.ericmedvet.jsdynsym.core.rl.LinearActorCritic.State;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.random.RandomGenerator;
-import java.util.stream.IntStream;
 
 public class LinearActorCritic implements NumericalTimeInvariantReinforcementLearningAgent<State>, FrozenableNumericalRLAgent<State> {
 
+  private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
   public record State(double[][] actorWeights, double[] criticWeights) {
 
   }
 
+  /**
+   * How a worker (see {@link #worker(RandomGenerator, SynchronizationPolicy)}) accesses the weights it shares with the
+   * other workers. {@code NONE} uses plain reads and writes (Hogwild!-style: concurrent updates may be lost);
+   * {@code OPAQUE} uses relaxed atomic accesses, so that no value is ever torn and every write eventually becomes
+   * visible to other threads; {@code STRIPED} applies the update of each actor row and of the critic while holding a
+   * lock specific to that row, so that updates are never lost, while reads stay lock-free.
+   */
+  public enum SynchronizationPolicy {
+    NONE, OPAQUE, STRIPED
+  }
+
+  private static final class SharedWeights {
+    private final State state;
+    private final LongAdder version;
+    private final Object[] stripes;
+
+    private SharedWeights(int nOfInputs, int nOfOutputs) {
+      state = new State(new double[nOfOutputs][nOfInputs], new double[nOfInputs]);
+      version = new LongAdder();
+      stripes = new Object[nOfOutputs + 1];
+      for (int j = 0; j < stripes.length; j = j + 1) {
+        stripes[j] = new Object();
+      }
+    }
+  }
+
   // hyperparameters
   private final double actorLearningRate;
   private final double criticLearningRate;
@@ -47,11 +75,16 @@ public class LinearActorCritic implements NumericalTimeInvariantReinforcementLea
   private final int nOfInputs;
   private final int nOfOutputs;
   private final RandomGenerator randomGenerator;
+  private final SynchronizationPolicy synchronizationPolicy;
+  private final boolean isWorker;
 
   // state
-  private State state;
-  private double[] lastObservation;
-  private double[] lastAction;
+  private final SharedWeights weights;
+  private final double[] lastObservation;
+  private final double[] lastAction;
+  private final double[] meanAction;
+  private boolean hasLast;
+  private FrozenPolicy frozenPolicy;
 
   public LinearActorCritic(
       int nOfInputs,
@@ -77,9 +110,86 @@ public class LinearActorCritic implements NumericalTimeInvariantReinforcementLea
     this.nOfInputs = nOfInputs;
     this.nOfOutputs = nOfOutputs;
     this.randomGenerator = randomGenerator;
+    synchronizationPolicy = SynchronizationPolicy.NONE;
+    isWorker = false;
+    weights = new SharedWeights(nOfInputs, nOfOutputs);
+    lastObservation = new double[nOfInputs];
+    lastAction = new double[nOfOutputs];
+    meanAction = new double[nOfOutputs];
     reset();
   }
 
+  private LinearActorCritic(
+      LinearActorCritic parent,
+      RandomGenerator randomGenerator,
+      SynchronizationPolicy synchronizationPolicy
+  ) {
+    actorLearningRate = parent.actorLearningRate;
+    criticLearningRate = parent.criticLearningRate;
+    actorWeightDecay = parent.actorWeightDecay;
+    criticWeightDecay = parent.criticWeightDecay;
+    discountFactor = parent.discountFactor;
+    explorationNoise = parent.explorationNoise;
+    gradLogProbRange = parent.gradLogProbRange;
+    initialWeightRange = parent.initialWeightRange;
+    nOfInputs = parent.nOfInputs;
+    nOfOutputs = parent.nOfOutputs;
+    this.randomGenerator = randomGenerator;
+    this.synchronizationPolicy = synchronizationPolicy;
+    isWorker = true;
+    weights = parent.weights;
+    lastObservation = new double[nOfInputs];
+    lastAction = new double[nOfOutputs];
+    meanAction = new double[nOfOutputs];
+  }
+
+  /**
+   * An immutable copy of the actor weights, taken at a given version of the agent weights.
+   */
+  public static final class FrozenPolicy implements MultivariateRealFunction {
+    private final double[][] weights;
+    private final long version;
+
+    private FrozenPolicy(double[][] weights, long version) {
+      this.weights = Arrays.stream(weights).map(double[]::clone).toArray(double[][]::new);
+      this.version = version;
+    }
+
+    @Override
+    public double[] compute(double... input) {
+      return compute(input, new double[weights.length]);
+    }
+
+    @Override
+    public double[] compute(double[] input, double[] output) {
+      if (input.length != nOfInputs()) {
+        throw new IllegalArgumentException(
+            String.format("Expected input length is %d: found %d", nOfInputs(), input.length)
+        );
+      }
+      return LinearAlgebraUtils.product(weights, input, output);
+    }
+
+    @Override
+    public int nOfInputs() {
+      return weights[0].length;
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return weights.length;
+    }
+
+    @Override
+    public String toString() {
+      return "frozenLinearPolicy[%dx%d;v=%d]".formatted(weights.length, weights[0].length, version);
+    }
+
+    public long version() {
+      return version;
+    }
+  }
+
   @Override
   public int nOfInputs() {
     return nOfInputs;
@@ -92,73 +202,152 @@ public class LinearActorCritic implements NumericalTimeInvariantReinforcementLea
 
   @Override
   public double[] step(double[] observation, double reward) {
+    return step(observation, reward, new double[nOfOutputs]);
+  }
+
+  @Override
+  public double[] step(double t, double[] input, double reward, double[] output) {
+    return step(input, reward, output);
+  }
+
+  public double[] step(double[] observation, double reward, double[] action) {
     if (observation.length != nOfInputs) {
       throw new IllegalArgumentException(
           String.format("Expected input length is %d: found %d", nOfInputs, observation.length)
       );
     }
+    State state = weights.state;
     // learn
-    if (Objects.nonNull(lastAction) && Objects.nonNull(lastObservation) && !Double.isNaN(reward)) {
-      double vLast = LinearAlgebraUtils.dotProduct(state.criticWeights, lastObservation);
-      double vCurrent = LinearAlgebraUtils.dotProduct(state.criticWeights, observation);
+    if (hasLast && !Double.isNaN(reward)) {
+      double vLast = dotProduct(state.criticWeights, lastObservation);
+      double vCurrent = dotProduct(state.criticWeights, observation);
       double tdError = reward + discountFactor * vCurrent - vLast;
-      for (int i = 0; i < state.criticWeights.length; i++) {
-        double decay = criticLearningRate * criticWeightDecay * state.criticWeights[i];
-        state.criticWeights[i] = state.criticWeights[i] + criticLearningRate * tdError * lastObservation[i] - decay;
+      if (synchronizationPolicy.equals(SynchronizationPolicy.STRIPED)) {
+        synchronized (weights.stripes[nOfOutputs]) {
+          updateCritic(state.criticWeights, tdError);
+        }
+      } else {
+        updateCritic(state.criticWeights, tdError);
       }
-      double[] meanAction = LinearAlgebraUtils.product(state.actorWeights, observation);
+      product(state.actorWeights, observation, meanAction);
       double invSigmaSq = 1d / (explorationNoise * explorationNoise);
       for (int j = 0; j < nOfOutputs; j++) {
         double actionDifference = lastAction[j] - meanAction[j];
-        for (int i = 0; i < nOfInputs; i++) {
-          double gradLogProb = gradLogProbRange.clip(actionDifference * invSigmaSq * lastObservation[i]);
-          double decay = actorLearningRate * actorWeightDecay * state.actorWeights[j][i];
-          state.actorWeights[j][i] = state.actorWeights[j][i] + actorLearningRate * tdError * gradLogProb - decay;
+        if (synchronizationPolicy.equals(SynchronizationPolicy.STRIPED)) {
+          synchronized (weights.stripes[j]) {
+            updateActorRow(state.actorWeights[j], tdError, actionDifference * invSigmaSq);
+          }
+        } else {
+          updateActorRow(state.actorWeights[j], tdError, actionDifference * invSigmaSq);
         }
       }
+      weights.version.increment();
     }
     // compute action
-    double[] action = LinearAlgebraUtils.product(state.actorWeights, observation);
+    product(state.actorWeights, observation, action);
     for (int i = 0; i < action.length; i++) {
       action[i] = action[i] + randomGenerator.nextGaussian() * explorationNoise;
     }
-    lastObservation = observation;
-    lastAction = action;
+    // copies, as the caller may reuse its arrays
+    System.arraycopy(observation, 0, lastObservation, 0, nOfInputs);
+    System.arraycopy(action, 0, lastAction, 0, nOfOutputs);
+    hasLast = true;
     return action;
   }
 
+  private double dotProduct(double[] w, double[] x) {
+    if (!synchronizationPolicy.equals(SynchronizationPolicy.OPAQUE)) {
+      return LinearAlgebraUtils.dotProduct(w, x);
+    }
+    double sum = 0;
+    for (int i = 0; i < x.length; i = i + 1) {
+      sum = sum + (double) DOUBLES.getOpaque(w, i) * x[i];
+    }
+    return sum;
+  }
+
+  private void product(double[][] m, double[] x, double[] y) {
+    if (!synchronizationPolicy.equals(SynchronizationPolicy.OPAQUE)) {
+      LinearAlgebraUtils.product(m, x, y);
+      return;
+    }
+    for (int j = 0; j < m.length; j = j + 1) {
+      y[j] = dotProduct(m[j], x);
+    }
+  }
+
+  private void updateActorRow(double[] actorRow, double tdError, double scaledActionDifference) {
+    for (int i = 0; i < nOfInputs; i++) {
+      double gradLogProb = gradLogProbRange.clip(scaledActionDifference * lastObservation[i]);
+      if (synchronizationPolicy.equals(SynchronizationPolicy.OPAQUE)) {
+        double w = (double) DOUBLES.getOpaque(actorRow, i);
+        double decay = actorLearningRate * actorWeightDecay * w;
+        DOUBLES.setOpaque(actorRow, i, w + actorLearningRate * tdError * gradLogProb - decay);
+      } else {
+        double decay = actorLearningRate * actorWeightDecay * actorRow[i];
+        actorRow[i] = actorRow[i] + actorLearningRate * tdError * gradLogProb - decay;
+      }
+    }
+  }
+
+  private void updateCritic(double[] criticWeights, double tdError) {
+    for (int i = 0; i < criticWeights.length; i++) {
+      if (synchronizationPolicy.equals(SynchronizationPolicy.OPAQUE)) {
+        double w = (double) DOUBLES.getOpaque(criticWeights, i);
+        double decay = criticLearningRate * criticWeightDecay * w;
+        DOUBLES.setOpaque(criticWeights, i, w + criticLearningRate * tdError * lastObservation[i] - decay);
+      } else {
+        double decay = criticLearningRate * criticWeightDecay * criticWeights[i];
+        criticWeights[i] = criticWeights[i] + criticLearningRate * tdError * lastObservation[i] - decay;
+      }
+    }
+  }
+
+  /**
+   * Returns a new agent which shares the weights (and hence the learning) of this agent, but has its own random
+   * generator and its own memory of the last observation and action. Workers are meant to be stepped concurrently, each
+   * in its own thread and on its own environment, with the given policy ruling the accesses to the shared weights.
+   * Resetting a worker only makes it forget its last observation and action: the shared weights are reset only by
+   * resetting the agent they were originally created by.
+   */
+  public LinearActorCritic worker(RandomGenerator randomGenerator, SynchronizationPolicy synchronizationPolicy) {
+    return new LinearActorCritic(this, randomGenerator, synchronizationPolicy);
+  }
+
   @Override
   public State getState() {
-    return state;
+    return weights.state;
   }
 
   @Override
   public void reset() {
-    state = new State(
-        IntStream.range(0, nOfOutputs)
-            .mapToObj(
-                iO -> IntStream.range(0, nOfInputs)
-                    .mapToDouble(iI -> initialWeightRange.denormalize(randomGenerator.nextDouble()))
-                    .toArray()
-            )
-            .toArray(double[][]::new),
-        IntStream.range(0, nOfInputs)
-            .mapToDouble(iI -> initialWeightRange.denormalize(randomGenerator.nextDouble()))
-            .toArray()
-    );
-    lastObservation = null;
-    lastAction = null;
+    hasLast = false;
+    if (isWorker) {
+      return;
+    }
+    State state = weights.state;
+    for (double[] actorRow : state.actorWeights) {
+      for (int i = 0; i < nOfInputs; i++) {
+        actorRow[i] = initialWeightRange.denormalize(randomGenerator.nextDouble());
+      }
+    }
+    for (int i = 0; i < nOfInputs; i++) {
+      state.criticWeights[i] = initialWeightRange.denormalize(randomGenerator.nextDouble());
+    }
+    weights.version.increment();
   }
 
+  /**
+   * Returns the current policy, without exploration noise. The returned object is shared among calls until the
+   * weights change, i.e., until the next learning step or reset. If workers are concurrently updating the weights, the
+   * copy is not guaranteed to correspond to any single version.
+   */
   @Override
-  public NumericalStatelessSystem dynamicalSystem() {
-    double[][] frozenActorWeights = Arrays.stream(state.actorWeights)
-        .map(v -> Arrays.copyOf(v, v.length))
-        .toArray(double[][]::new);
-    return MultivariateRealFunction.from(
-        observation -> LinearAlgebraUtils.product(frozenActorWeights, observation),
-        nOfInputs,
-        nOfOutputs
-    );
+  public FrozenPolicy dynamicalSystem() {
+    long version = weights.version.sum();
+    if (frozenPolicy == null || frozenPolicy.version() != version) {
+      frozenPolicy = new FrozenPolicy(weights.state.actorWeights, version);
+    }
+    return frozenPolicy;
   }
 }
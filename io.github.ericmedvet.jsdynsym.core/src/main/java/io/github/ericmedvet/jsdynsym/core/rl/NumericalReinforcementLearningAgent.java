@@ -42,6 +42,11 @@ public interface NumericalReinforcementLearningAgent<S> extends ReinforcementLea
     }
   }
 
+  default double[] step(double t, double[] input, double reward, double[] output) {
+    System.arraycopy(step(t, input, reward), 0, output, 0, nOfOutputs());
+    return output;
+  }
+
   static <S> NumericalReinforcementLearningAgent<S> from(NumericalDynamicalSystem<S> dynamicalSystem) {
     record HardNRLA<S>(
         NumericalDynamicalSystem<S> numericalDynamicalSystem
@@ -72,6 +77,11 @@ public interface NumericalReinforcementLearningAgent<S> extends ReinforcementLea
         return numericalDynamicalSystem.step(t, input);
       }
 
+      @Override
+      public double[] step(double t, double[] input, double reward, double[] output) {
+        return numericalDynamicalSystem.step(t, input, output);
+      }
+
       @Override
       public S getState() {
         return numericalDynamicalSystem.getState();
@@ -17,7 +17,6 @@
  * limitations under the License.
  * =========================LICENSE_END==================================
  */
-
 package io.github.ericmedvet.jsdynsym.core.rl;
 
 import java.util.*;
@@ -25,21 +24,55 @@ import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+/**
+ * A tabular agent which, when not exploring, chooses the visited action with the largest accumulated reward for the
+ * current observation, or a never visited action if none has a positive one. Ties among the best visited actions are
+ * resolved in favor of the one with the lowest index.
+ */
 public class ProtoQLearning implements EnumeratedTimeInvariantReinforcementLearningAgent<ProtoQLearning.State> {
 
+  // above this number of entries, the dense table is not the default anymore
+  private static final int MAX_DEFAULT_DENSE_SIZE = 1 << 20;
+
   private final int nOfInputs;
   private final int nOfOutputs;
   private final double explorationRate;
   private final RandomGenerator randomGenerator;
-  private final State state;
-  private ObservationActionPair previousPair;
+  private final Table table;
+  private int previousObservation;
+  private int previousAction;
+  private State state;
 
-  public ProtoQLearning(int nOfInputs, int nOfOutputs, double explorationRate, RandomGenerator randomGenerator) {
+  public ProtoQLearning(
+      int nOfInputs,
+      int nOfOutputs,
+      double explorationRate,
+      RandomGenerator randomGenerator,
+      TableType tableType
+  ) {
     this.nOfInputs = nOfInputs;
     this.nOfOutputs = nOfOutputs;
     this.explorationRate = explorationRate;
     this.randomGenerator = randomGenerator;
-    state = new State(nOfInputs, nOfOutputs, new HashMap<>());
+    table = switch (tableType) {
+      case DENSE -> new DenseTable(nOfInputs, nOfOutputs);
+      case SPARSE -> new SparseTable(nOfOutputs);
+    };
+    previousAction = -1;
+  }
+
+  public ProtoQLearning(int nOfInputs, int nOfOutputs, double explorationRate, RandomGenerator randomGenerator) {
+    this(
+        nOfInputs,
+        nOfOutputs,
+        explorationRate,
+        randomGenerator,
+        (long) nOfInputs * nOfOutputs <= MAX_DEFAULT_DENSE_SIZE ? TableType.DENSE : TableType.SPARSE
+    );
+  }
+
+  public enum TableType {
+    DENSE, SPARSE
   }
 
   public record ObservationActionPair(int observation, int action) {}
@@ -60,14 +93,237 @@ public class ProtoQLearning implements EnumeratedTimeInvariantReinforcementLearn
     }
   }
 
+  // rows of action values, one per observation, with the set of visited actions and the best visited one, the one with
+  // the lowest index on ties
+  private abstract static class Table {
+    protected final int nOfOutputs;
+    protected final int nOfWords;
+    protected double[] values;
+    protected long[] visited;
+    protected int[] counts;
+    protected int[] bests;
+
+    Table(int nOfOutputs, int nOfRows) {
+      this.nOfOutputs = nOfOutputs;
+      nOfWords = (nOfOutputs + Long.SIZE - 1) / Long.SIZE;
+      values = new double[nOfRows * nOfOutputs];
+      visited = new long[nOfRows * nOfWords];
+      counts = new int[nOfRows];
+      bests = new int[nOfRows];
+      Arrays.fill(bests, -1);
+    }
+
+    abstract void clear();
+
+    abstract int nOfRows();
+
+    abstract int observation(int row);
+
+    // returns -1 if the observation has no row and create is false
+    abstract int row(int observation, boolean create);
+
+    void add(int observation, int action, double value) {
+      int row = row(observation, true);
+      int i = row * nOfOutputs + action;
+      values[i] = values[i] + value;
+      if (!isVisited(row, action)) {
+        visited[row * nOfWords + action / Long.SIZE] |= 1L << action;
+        counts[row] = counts[row] + 1;
+      }
+      int best = bests[row];
+      double bestValue = best < 0 ? Double.NaN : values[row * nOfOutputs + best];
+      if (best < 0 || values[i] > bestValue || (values[i] == bestValue && action < best)) {
+        bests[row] = action;
+      } else if (best == action && value < 0) {
+        bests[row] = argMax(row);
+      }
+    }
+
+    private int argMax(int row) {
+      int best = -1;
+      for (int a = 0; a < nOfOutputs; a++) {
+        if (isVisited(row, a) && (best < 0 || values[row * nOfOutputs + a] > values[row * nOfOutputs + best])) {
+          best = a;
+        }
+      }
+      return best;
+    }
+
+    void grow(int nOfRows) {
+      int oldNOfRows = counts.length;
+      values = Arrays.copyOf(values, nOfRows * nOfOutputs);
+      visited = Arrays.copyOf(visited, nOfRows * nOfWords);
+      counts = Arrays.copyOf(counts, nOfRows);
+      bests = Arrays.copyOf(bests, nOfRows);
+      Arrays.fill(bests, oldNOfRows, nOfRows, -1);
+    }
+
+    boolean isVisited(int row, int action) {
+      return (visited[row * nOfWords + action / Long.SIZE] & (1L << action)) != 0;
+    }
+
+    Map<ObservationActionPair, Double> toMap() {
+      Map<ObservationActionPair, Double> map = new HashMap<>();
+      for (int row = 0; row < nOfRows(); row++) {
+        for (int a = 0; a < nOfOutputs; a++) {
+          if (isVisited(row, a)) {
+            map.put(new ObservationActionPair(observation(row), a), values[row * nOfOutputs + a]);
+          }
+        }
+      }
+      return map;
+    }
+
+    // returns the k-th (0-based) never visited action, in increasing order
+    int unvisited(int row, int k) {
+      for (int a = 0; a < nOfOutputs; a++) {
+        if (!isVisited(row, a)) {
+          if (k == 0) {
+            return a;
+          }
+          k = k - 1;
+        }
+      }
+      throw new IllegalStateException("No unvisited action left");
+    }
+  }
+
+  private static class DenseTable extends Table {
+    private final int nOfInputs;
+
+    DenseTable(int nOfInputs, int nOfOutputs) {
+      super(nOfOutputs, nOfInputs);
+      this.nOfInputs = nOfInputs;
+    }
+
+    @Override
+    void clear() {
+      Arrays.fill(values, 0d);
+      Arrays.fill(visited, 0L);
+      Arrays.fill(counts, 0);
+      Arrays.fill(bests, -1);
+    }
+
+    @Override
+    int nOfRows() {
+      return nOfInputs;
+    }
+
+    @Override
+    int observation(int row) {
+      return row;
+    }
+
+    @Override
+    int row(int observation, boolean create) {
+      if (observation < 0 || observation >= nOfInputs) {
+        throw new IllegalArgumentException(
+            "Invalid observation %d: should be in [0,%d)".formatted(observation, nOfInputs)
+        );
+      }
+      return observation;
+    }
+  }
+
+  // open addressing with linear probing on observations, rows being allocated on first visit
+  private static class SparseTable extends Table {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] slotObservations;
+    private int[] slotRows;
+    private int[] rowObservations;
+    private int nOfRows;
+
+    SparseTable(int nOfOutputs) {
+      super(nOfOutputs, INITIAL_CAPACITY);
+      slotObservations = new int[2 * INITIAL_CAPACITY];
+      slotRows = new int[2 * INITIAL_CAPACITY];
+      Arrays.fill(slotRows, -1);
+      rowObservations = new int[INITIAL_CAPACITY];
+    }
+
+    private static int hash(int observation) {
+      int h = observation * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+    @Override
+    void clear() {
+      Arrays.fill(slotRows, -1);
+      nOfRows = 0;
+    }
+
+    @Override
+    int nOfRows() {
+      return nOfRows;
+    }
+
+    @Override
+    int observation(int row) {
+      return rowObservations[row];
+    }
+
+    @Override
+    int row(int observation, boolean create) {
+      int mask = slotRows.length - 1;
+      int slot = hash(observation) & mask;
+      while (slotRows[slot] >= 0) {
+        if (slotObservations[slot] == observation) {
+          return slotRows[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      if (!create) {
+        return -1;
+      }
+      if (nOfRows == counts.length) {
+        grow(2 * nOfRows);
+        rowObservations = Arrays.copyOf(rowObservations, 2 * nOfRows);
+        rehash(2 * slotRows.length);
+        return row(observation, true);
+      }
+      int row = nOfRows;
+      nOfRows = nOfRows + 1;
+      slotObservations[slot] = observation;
+      slotRows[slot] = row;
+      rowObservations[row] = observation;
+      // rows may be reused after a clear()
+      Arrays.fill(values, row * nOfOutputs, (row + 1) * nOfOutputs, 0d);
+      Arrays.fill(visited, row * nOfWords, (row + 1) * nOfWords, 0L);
+      counts[row] = 0;
+      bests[row] = -1;
+      return row;
+    }
+
+    private void rehash(int capacity) {
+      slotObservations = new int[capacity];
+      slotRows = new int[capacity];
+      Arrays.fill(slotRows, -1);
+      int mask = capacity - 1;
+      for (int row = 0; row < nOfRows; row++) {
+        int slot = hash(rowObservations[row]) & mask;
+        while (slotRows[slot] >= 0) {
+          slot = (slot + 1) & mask;
+        }
+        slotObservations[slot] = rowObservations[row];
+        slotRows[slot] = row;
+      }
+    }
+  }
+
   @Override
   public State getState() {
+    if (state == null) {
+      state = new State(nOfInputs, nOfOutputs, table.toMap());
+    }
     return state;
   }
 
   @Override
   public void reset() {
-    state.table().clear();
+    table.clear();
+    previousAction = -1;
+    state = null;
   }
 
   @Override
@@ -82,9 +338,11 @@ public class ProtoQLearning implements EnumeratedTimeInvariantReinforcementLearn
 
   @Override
   public Integer step(Integer input, double reward) {
+    int observation = input;
     // update the state based on previous O-A pair
-    if (previousPair != null) {
-      state.table().merge(previousPair, reward, Double::sum);
+    if (previousAction >= 0) {
+      table.add(previousObservation, previousAction, reward);
+      state = null;
     }
     // choose A based on current state
     int output;
@@ -93,30 +351,23 @@ public class ProtoQLearning implements EnumeratedTimeInvariantReinforcementLearn
       output = randomGenerator.nextInt(nOfOutputs);
     } else {
       // choose action based on the table
-      List<Map.Entry<ObservationActionPair, Double>> oEntries = state.table()
-          .entrySet()
-          .stream()
-          .filter(e -> e.getKey().observation() == input)
-          .toList();
-      Optional<Map.Entry<ObservationActionPair, Double>> oEntry = oEntries.stream().max(Map.Entry.comparingByValue());
-      if (oEntry.isEmpty()) {
+      int row = table.row(observation, false);
+      int nOfVisited = row < 0 ? 0 : table.counts[row];
+      if (nOfVisited == 0) {
         output = randomGenerator.nextInt(nOfOutputs);
       } else {
-        double value = oEntry.get().getValue();
-        if (value > 0 || oEntries.size() == nOfOutputs) {
+        int best = table.bests[row];
+        if (table.values[row * nOfOutputs + best] > 0 || nOfVisited == nOfOutputs) {
           // the best action has a value greater than the default one (0)
-          output = oEntry.get().getKey().action();
+          output = best;
         } else {
           // choose a random action among the one never chosen
-          List<Integer> chosenActions = oEntries.stream().map(e -> e.getKey().action()).toList();
-          List<Integer> allActions = IntStream.range(0, nOfOutputs).boxed().toList();
-          List<Integer> availableActions = new ArrayList<>(allActions);
-          availableActions.removeAll(chosenActions);
-          output = availableActions.get(randomGenerator.nextInt(availableActions.size()));
+          output = table.unvisited(row, randomGenerator.nextInt(nOfOutputs - nOfVisited));
         }
       }
     }
-    previousPair = new ObservationActionPair(input, output);
+    previousObservation = observation;
+    previousAction = output;
     return output;
   }
 }
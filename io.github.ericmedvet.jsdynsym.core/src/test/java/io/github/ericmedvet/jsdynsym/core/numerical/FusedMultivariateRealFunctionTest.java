@@ -0,0 +1,104 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FusedMultivariateRealFunctionTest {
+
+  private static final double DELTA = 1e-12;
+
+  private static LinearCombination linearCombination(int nOfInputs, int nOfOutputs, Random random) {
+    LinearCombination linearCombination = new LinearCombination(nOfInputs, nOfOutputs, false);
+    linearCombination.setParams(random.doubles(linearCombination.getParams().length, -1, 1).toArray());
+    return linearCombination;
+  }
+
+  private static MultiLayerPerceptron mlp(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInputs,
+      int nOfOutputs,
+      Random random
+  ) {
+    MultiLayerPerceptron mlp = new MultiLayerPerceptron(activationFunction, nOfInputs, new int[]{5}, nOfOutputs);
+    mlp.setParams(random.doubles(mlp.getParams().length, -1, 1).toArray());
+    return mlp;
+  }
+
+  @Test
+  void adjacentLinearCombinationsAndRescalingAreFolded() {
+    Random random = new Random(1);
+    LinearCombination first = linearCombination(4, 3, random);
+    LinearCombination second = linearCombination(3, 2, random);
+    FusedMultivariateRealFunction fused = FusedMultivariateRealFunction.of(first)
+        .andThen(second)
+        .scaledOutput(2, -1);
+    assertEquals(1, fused.nOfStages());
+    for (int i = 0; i < 10; i = i + 1) {
+      double[] input = random.doubles(4, -1, 1).toArray();
+      double[] expected = second.compute(first.compute(input));
+      for (int j = 0; j < expected.length; j = j + 1) {
+        expected[j] = 2 * expected[j] - 1;
+      }
+      assertArrayEquals(expected, fused.compute(input), DELTA);
+    }
+  }
+
+  @Test
+  void identityMlpIsFoldedWithLinearCombination() {
+    Random random = new Random(2);
+    LinearCombination linearCombination = linearCombination(4, 3, random);
+    MultiLayerPerceptron mlp = mlp(MultiLayerPerceptron.ActivationFunction.IDENTITY, 3, 2, random);
+    FusedMultivariateRealFunction fused = FusedMultivariateRealFunction.of(linearCombination).andThen(mlp);
+    assertEquals(1, fused.nOfStages());
+    for (int i = 0; i < 10; i = i + 1) {
+      double[] input = random.doubles(4, -1, 1).toArray();
+      assertArrayEquals(mlp.compute(linearCombination.compute(input)), fused.compute(input), DELTA);
+    }
+  }
+
+  @Test
+  void nonFoldableStagesAreKeptByReference() {
+    Random random = new Random(3);
+    MultiLayerPerceptron mlp = mlp(MultiLayerPerceptron.ActivationFunction.TANH, 4, 3, random);
+    LinearCombination linearCombination = linearCombination(3, 2, random);
+    FusedMultivariateRealFunction fused = FusedMultivariateRealFunction.of(mlp).andThen(linearCombination);
+    assertEquals(2, fused.nOfStages());
+    mlp.setParams(random.doubles(mlp.getParams().length, -1, 1).toArray());
+    for (int i = 0; i < 10; i = i + 1) {
+      double[] input = random.doubles(4, -1, 1).toArray();
+      assertArrayEquals(linearCombination.compute(mlp.compute(input)), fused.compute(input));
+    }
+  }
+
+  @Test
+  void wrongOutputSizeIsRejected() {
+    Random random = new Random(4);
+    FusedMultivariateRealFunction fused = FusedMultivariateRealFunction.of(linearCombination(4, 3, random))
+        .andThen(linearCombination(3, 2, random));
+    assertThrows(IllegalArgumentException.class, () -> fused.compute(new double[4], new double[3]));
+  }
+}
@@ -0,0 +1,104 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the kernels in use, which are the vector ones when built with the {@code vector} profile, with the scalar
+ * ones.
+ */
+class LinearAlgebraKernelsTest {
+
+  private static final LinearAlgebraKernels SCALAR = new ScalarLinearAlgebraKernels();
+  private static final LinearAlgebraKernels KERNELS = LinearAlgebraKernels.get();
+  private static final int MAX_LENGTH = 67;
+  private static final int OFFSET = 3;
+
+  private static double[] doubles(Random random, int length) {
+    return random.doubles(length, -10, 10).toArray();
+  }
+
+  private static float[] floats(Random random, int length) {
+    float[] values = new float[length];
+    for (int i = 0; i < length; i = i + 1) {
+      values[i] = (float) (random.nextDouble() * 20 - 10);
+    }
+    return values;
+  }
+
+  @Test
+  void dotMatchesUpToSummationOrder() {
+    Random random = new Random(1);
+    for (int length = 0; length <= MAX_LENGTH; length = length + 1) {
+      double[] v1 = doubles(random, length + OFFSET);
+      double[] v2 = doubles(random, length + OFFSET);
+      double magnitude = 0;
+      for (int i = 0; i < length; i = i + 1) {
+        magnitude = magnitude + Math.abs(v1[OFFSET + i] * v2[i]);
+      }
+      assertEquals(
+          SCALAR.dot(1d, v1, OFFSET, v2, 0, length),
+          KERNELS.dot(1d, v1, OFFSET, v2, 0, length),
+          1e-14 * (1 + magnitude) * length
+      );
+      float[] f1 = floats(random, length + OFFSET);
+      float[] f2 = floats(random, length + OFFSET);
+      float fMagnitude = 0;
+      for (int i = 0; i < length; i = i + 1) {
+        fMagnitude = fMagnitude + Math.abs(f1[i] * f2[OFFSET + i]);
+      }
+      assertEquals(
+          SCALAR.dot(1f, f1, 0, f2, OFFSET, length),
+          KERNELS.dot(1f, f1, 0, f2, OFFSET, length),
+          1e-6 * (1 + fMagnitude) * length
+      );
+    }
+  }
+
+  @Test
+  void elementwiseKernelsAreIdentical() {
+    Random random = new Random(2);
+    for (int length = 0; length <= MAX_LENGTH; length = length + 1) {
+      double[] v1 = doubles(random, length + OFFSET);
+      double[] v2 = doubles(random, length + OFFSET);
+      double[] y = doubles(random, length + OFFSET);
+      double[] expected = new double[length];
+      double[] actual = new double[length];
+      SCALAR.add(v1, v2, expected, length);
+      KERNELS.add(v1, v2, actual, length);
+      assertArrayEquals(expected, actual);
+      expected = y.clone();
+      actual = y.clone();
+      SCALAR.axpy(0.7, v1, OFFSET, expected, 0, length);
+      KERNELS.axpy(0.7, v1, OFFSET, actual, 0, length);
+      assertArrayEquals(expected, actual);
+      expected = y.clone();
+      actual = y.clone();
+      SCALAR.mulAdd(v1, 0, v2, OFFSET, expected, OFFSET, length);
+      KERNELS.mulAdd(v1, 0, v2, OFFSET, actual, OFFSET, length);
+      assertArrayEquals(expected, actual);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LinearCombinationTest {
+
+  @Test
+  void batchIsExactlyEqualToSingleComputations() {
+    Random random = new Random(1);
+    int nOfInputs = 13;
+    int nOfOutputs = 5;
+    int nOfRows = 7;
+    double[][] m = new double[nOfOutputs][];
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      // values of different magnitudes, so that the order of the summation matters
+      m[i] = random.doubles(nOfInputs).map(v -> v * Math.pow(10, random.nextInt(-8, 8))).toArray();
+    }
+    double[] q = random.doubles(nOfOutputs).map(v -> v * 1e6).toArray();
+    LinearCombination linearCombination = new LinearCombination(m, q);
+    double[] inputs = random.doubles(nOfRows * nOfInputs, -1, 1).toArray();
+    double[] outputs = linearCombination.computeBatch(inputs);
+    for (int r = 0; r < nOfRows; r = r + 1) {
+      assertArrayEquals(
+          linearCombination.compute(Arrays.copyOfRange(inputs, r * nOfInputs, (r + 1) * nOfInputs)),
+          Arrays.copyOfRange(outputs, r * nOfOutputs, (r + 1) * nOfOutputs)
+      );
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class ScratchBuffersTest {
+
+  @Test
+  void releasedArrayIsReused() {
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    double[] array = scratchBuffers.doubles(300);
+    scratchBuffers.release(array);
+    assertSame(array, scratchBuffers.doubles(300));
+    scratchBuffers.release(array);
+  }
+
+  @Test
+  void releasingTwiceIsRejected() {
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    float[] array = scratchBuffers.floats(7);
+    scratchBuffers.release(array);
+    assertThrows(IllegalArgumentException.class, () -> scratchBuffers.release(array));
+  }
+
+  @Test
+  void takenArraysAreNotShared() {
+    ScratchBuffers scratchBuffers = ScratchBuffers.get();
+    double[] first = scratchBuffers.doubles(5);
+    double[] second = scratchBuffers.doubles(5);
+    assertNotSame(first, second);
+    assertEquals(5, second.length);
+    scratchBuffers.release(first);
+    scratchBuffers.release(second);
+  }
+}
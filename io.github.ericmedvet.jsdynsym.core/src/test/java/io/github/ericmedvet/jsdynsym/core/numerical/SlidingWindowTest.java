@@ -0,0 +1,55 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.SortedMap;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowTest {
+
+  @Test
+  void sumsDoNotDriftAfterLargeValuesAreEvicted() {
+    SlidingWindow window = new SlidingWindow(1, 1d);
+    double t = 0;
+    for (int k = 0; k < 10; k = k + 1) {
+      window.add(t, new double[]{1e17});
+      t = t + 0.5;
+    }
+    for (int k = 0; k < 3000; k = k + 1) {
+      window.add(t, new double[]{1d});
+      t = t + 0.5;
+    }
+    assertEquals(1d, window.mean(0), 0d);
+    assertEquals(0d, window.slope(0), 0d);
+  }
+
+  @Test
+  void mapIsReusedUntilTheNextAdd() {
+    SlidingWindow window = new SlidingWindow(2, 1d);
+    window.add(0d, new double[]{1d, 2d});
+    SortedMap<Double, double[]> map = window.toMap();
+    assertSame(map, window.toMap());
+    window.add(0.5d, new double[]{3d, 4d});
+    assertEquals(2, window.toMap().size());
+  }
+}
@@ -0,0 +1,93 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.rl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class ProtoQLearningTest {
+
+  private static final double EXPLORE = 0d;
+  private static final double EXPLOIT = 0.9d;
+
+  // a generator returning the given values, in order, for nextDouble() and nextInt(int)
+  private static RandomGenerator scripted(List<Double> doubles, List<Integer> ints) {
+    Iterator<Double> doubleIterator = doubles.iterator();
+    Iterator<Integer> intIterator = ints.iterator();
+    return new RandomGenerator() {
+      @Override
+      public double nextDouble() {
+        return doubleIterator.next();
+      }
+
+      @Override
+      public int nextInt(int bound) {
+        return intIterator.next();
+      }
+
+      @Override
+      public long nextLong() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Test
+  void tiesAreResolvedInFavorOfTheLowestAction() {
+    for (ProtoQLearning.TableType tableType : ProtoQLearning.TableType.values()) {
+      ProtoQLearning agent = new ProtoQLearning(
+          2,
+          3,
+          0.5,
+          scripted(List.of(EXPLORE, EXPLORE, EXPLOIT, EXPLOIT), List.of(2, 0)),
+          tableType
+      );
+      assertEquals(2, (int) agent.step(0, 0));
+      assertEquals(0, (int) agent.step(0, 1));
+      // actions 2 and 0 now have the same value, 2 having been visited first
+      assertEquals(0, (int) agent.step(0, 1));
+      // action 0 loses the lead
+      assertEquals(2, (int) agent.step(0, -1));
+    }
+  }
+
+  @Test
+  void tiesAfterTheBestIsLoweredAreResolvedInFavorOfTheLowestAction() {
+    for (ProtoQLearning.TableType tableType : ProtoQLearning.TableType.values()) {
+      ProtoQLearning agent = new ProtoQLearning(
+          2,
+          3,
+          0.5,
+          scripted(List.of(EXPLORE, EXPLORE, EXPLORE, EXPLOIT, EXPLOIT), List.of(2, 1, 0)),
+          tableType
+      );
+      assertEquals(2, (int) agent.step(0, 0));
+      assertEquals(1, (int) agent.step(0, 1));
+      assertEquals(0, (int) agent.step(0, 1));
+      assertEquals(0, (int) agent.step(0, 2));
+      // action 0 falls below actions 1 and 2, which have the same value
+      assertEquals(1, (int) agent.step(0, -2));
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2025 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorLinearAlgebraKernels extends ScalarLinearAlgebraKernels {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+  // below this length, the scalar loop is faster than setting up and reducing vectors
+  private static final int MIN_LENGTH = 2 * SPECIES.length();
+  private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+  private static final int FLOAT_MIN_LENGTH = 2 * FLOAT_SPECIES.length();
+
+  @Override
+  public void add(double[] v1, double[] v2, double[] out, int length) {
+    if (length < MIN_LENGTH) {
+      super.add(v1, v2, out, length);
+      return;
+    }
+    int upperBound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < upperBound; i = i + SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, v1, i).add(DoubleVector.fromArray(SPECIES, v2, i)).intoArray(out, i);
+    }
+    for (; i < length; i++) {
+      out[i] = v1[i] + v2[i];
+    }
+  }
+
+  @Override
+  public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+    if (length < MIN_LENGTH) {
+      super.axpy(a, x, xOffset, y, yOffset, length);
+      return;
+    }
+    DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+    int upperBound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < upperBound; i = i + SPECIES.length()) {
+      DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+      DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+      vy.add(vx.mul(va)).intoArray(y, yOffset + i);
+    }
+    for (; i < length; i++) {
+      y[yOffset + i] = y[yOffset + i] + a * x[xOffset + i];
+    }
+  }
+
+  @Override
+  public double dot(double initial, double[] v1, int offset1, double[] v2, int offset2, int length) {
+    if (length < MIN_LENGTH) {
+      return super.dot(initial, v1, offset1, v2, offset2, length);
+    }
+    DoubleVector acc = DoubleVector.zero(SPECIES);
+    int upperBound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < upperBound; i = i + SPECIES.length()) {
+      DoubleVector vv1 = DoubleVector.fromArray(SPECIES, v1, offset1 + i);
+      DoubleVector vv2 = DoubleVector.fromArray(SPECIES, v2, offset2 + i);
+      acc = acc.add(vv1.mul(vv2));
+    }
+    double sum = initial + acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      sum = sum + v1[offset1 + i] * v2[offset2 + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public float dot(float initial, float[] v1, int offset1, float[] v2, int offset2, int length) {
+    if (length < FLOAT_MIN_LENGTH) {
+      return super.dot(initial, v1, offset1, v2, offset2, length);
+    }
+    FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+    int upperBound = FLOAT_SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < upperBound; i = i + FLOAT_SPECIES.length()) {
+      FloatVector vv1 = FloatVector.fromArray(FLOAT_SPECIES, v1, offset1 + i);
+      FloatVector vv2 = FloatVector.fromArray(FLOAT_SPECIES, v2, offset2 + i);
+      acc = acc.add(vv1.mul(vv2));
+    }
+    float sum = initial + acc.reduceLanes(VectorOperators.ADD);
+    for (; i < length; i++) {
+      sum = sum + v1[offset1 + i] * v2[offset2 + i];
+    }
+    return sum;
+  }
+
+  @Override
+  public void mulAdd(double[] a, int aOffset, double[] b, int bOffset, double[] y, int yOffset, int length) {
+    if (length < MIN_LENGTH) {
+      super.mulAdd(a, aOffset, b, bOffset, y, yOffset, length);
+      return;
+    }
+    int upperBound = SPECIES.loopBound(length);
+    int i = 0;
+    for (; i < upperBound; i = i + SPECIES.length()) {
+      DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+      DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+      DoubleVector.fromArray(SPECIES, y, yOffset + i).add(va.mul(vb)).intoArray(y, yOffset + i);
+    }
+    for (; i < length; i++) {
+      y[yOffset + i] = y[yOffset + i] + a[aOffset + i] * b[bOffset + i];
+    }
+  }
+}